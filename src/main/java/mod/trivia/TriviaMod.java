@@ -3,52 +3,62 @@ package mod.trivia;
 import mod.trivia.command.TriviaCommands;
 import mod.trivia.config.TriviaConfigManager;
 import mod.trivia.game.TriviaGame;
+import mod.trivia.message.TriviaMessage;
+import mod.trivia.util.ChatMessageGuard;
 import net.fabricmc.api.ModInitializer;
+import net.fabricmc.fabric.api.event.lifecycle.v1.ServerLifecycleEvents;
 import net.fabricmc.fabric.api.event.lifecycle.v1.ServerTickEvents;
 import net.fabricmc.fabric.api.message.v1.ServerMessageEvents;
+import net.fabricmc.fabric.api.networking.v1.ServerPlayConnectionEvents;
 import net.minecraft.server.network.ServerPlayerEntity;
-import net.minecraft.text.Text;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.HashMap;
-import java.util.Map;
-import java.util.UUID;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class TriviaMod implements ModInitializer {
 	public static final String MOD_ID = "trivia";
 	public static final Logger LOGGER = LoggerFactory.getLogger(MOD_ID);
 
 	private static final TriviaGame GAME = new TriviaGame();
-	private static final Map<UUID, String> CHAT_MESSAGE_GUARD = new HashMap<>();
+	private static final ChatMessageGuard CHAT_MESSAGE_GUARD = new ChatMessageGuard(1024, 5000);
+
+	// Snapshot of the config values the chat path needs; refreshed on config reload, read per message.
+	private static volatile String answerPrefix = ".";
+	private static volatile int chatLogSampleRate = 0;
+	private static final AtomicLong CHAT_ATTEMPTS = new AtomicLong();
 
 	@Override
 	public void onInitialize() {
+		GAME.addConfigListener("chat", Set.of("answerPrefix", "chatLogSampleRate"), cfg -> {
+			answerPrefix = (cfg.answerPrefix == null || cfg.answerPrefix.isBlank()) ? "." : cfg.answerPrefix;
+			chatLogSampleRate = Math.max(0, cfg.chatLogSampleRate);
+		});
 		TriviaConfigManager.loadAll();
 		GAME.reloadFromDisk();
 
 		TriviaCommands.register(GAME);
 
 		ServerTickEvents.END_SERVER_TICK.register(server -> GAME.onServerTick(server));
+		ServerLifecycleEvents.SERVER_STARTED.register(server -> GAME.onServerStarted());
+		ServerLifecycleEvents.SERVER_STOPPING.register(server -> GAME.onServerStopping());
+		ServerPlayConnectionEvents.JOIN.register((handler, sender, server) -> GAME.onPlayerJoin(handler.getPlayer()));
+		ServerPlayConnectionEvents.DISCONNECT.register((handler, server) -> {
+			CHAT_MESSAGE_GUARD.remove(handler.getPlayer().getUuid());
+			GAME.onPlayerLeave(server, handler.getPlayer());
+		});
 
 		// Intercept chat attempts. Messages starting with '.' are treated as answers during an active round.
 		ServerMessageEvents.ALLOW_CHAT_MESSAGE.register((message, sender, params) -> {
 			if (!(sender instanceof ServerPlayerEntity player)) {
 				return true;
 			}
-			if (!TriviaConfigManager.getConfig().enabled) {
-				return true;
-			}
 			String raw = message.getContent().getString();
-			if (raw != null && !raw.isEmpty()) {
-				String prefix = TriviaConfigManager.getConfig().answerPrefix;
-				if (prefix == null || prefix.isBlank()) {
-					prefix = ".";
-				}
-				if (raw.startsWith(prefix)) {
-					CHAT_MESSAGE_GUARD.put(player.getUuid(), raw);
-				}
+			if (raw == null || !raw.startsWith(answerPrefix)) {
+				return true;
 			}
+			CHAT_MESSAGE_GUARD.put(player.getUuid(), raw);
 			return !handleChatAttempt(player, raw);
 		});
 
@@ -58,9 +68,10 @@ public final class TriviaMod implements ModInitializer {
 				return;
 			}
 			String raw = message.getContent().getString();
-			String guarded = CHAT_MESSAGE_GUARD.get(player.getUuid());
-			if (guarded != null && guarded.equals(raw)) {
-				CHAT_MESSAGE_GUARD.remove(player.getUuid());
+			if (raw == null || !raw.startsWith(answerPrefix)) {
+				return;
+			}
+			if (CHAT_MESSAGE_GUARD.consume(player.getUuid(), raw)) {
 				return;
 			}
 			handleChatAttempt(player, raw);
@@ -71,21 +82,19 @@ public final class TriviaMod implements ModInitializer {
 		if (player == null || raw == null || raw.isEmpty()) {
 			return false;
 		}
-		if (!TriviaConfigManager.getConfig().enabled) {
-			return false;
-		}
-		String prefix = TriviaConfigManager.getConfig().answerPrefix;
-		if (prefix == null || prefix.isBlank()) {
-			prefix = ".";
-		}
-		if (!raw.startsWith(prefix)) {
+		if (!GAME.isRoundActive(player)) {
+			if (TriviaConfigManager.getConfig().enabled) {
+				player.sendMessage(GAME.getMessages().text(TriviaMessage.NO_ACTIVE_QUESTION), false);
+			}
 			return false;
 		}
-		TriviaMod.LOGGER.info("Trivia chat attempt from {}: {}", player.getName().getString(), raw);
 		boolean handled = GAME.onPlayerAttempt(player, raw);
-		TriviaMod.LOGGER.info("Trivia chat attempt handled={}, activeRound={}", handled, GAME.getActiveAnswerForAdmin() != null);
+		int sample = chatLogSampleRate;
+		if (sample > 0 && CHAT_ATTEMPTS.incrementAndGet() % sample == 0) {
+			TriviaMod.LOGGER.info("Trivia chat attempt (1/{} sampled) from {}: {} handled={}", sample, player.getName().getString(), raw, handled);
+		}
 		if (!handled) {
-			player.sendMessage(Text.literal("Trivia: no active question right now."), false);
+			player.sendMessage(GAME.getMessages().text(TriviaMessage.NO_ACTIVE_QUESTION), false);
 		}
 		return handled;
 	}
@@ -93,4 +102,4 @@ public final class TriviaMod implements ModInitializer {
 	public static TriviaGame game() {
 		return GAME;
 	}
-}
\ No newline at end of file
+}
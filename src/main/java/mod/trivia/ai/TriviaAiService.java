@@ -151,6 +151,13 @@ public final class TriviaAiService {
 			});
 	}
 
+	/**
+	 * Clears the global rate limit window, e.g. after the API key or model changes.
+	 */
+	public void resetRateLimit() {
+		lastRequestMillis.set(0);
+	}
+
 	private boolean tryRateLimitOk() {
 		long now = System.currentTimeMillis();
 		long last = lastRequestMillis.get();
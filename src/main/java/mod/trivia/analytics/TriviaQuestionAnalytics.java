@@ -0,0 +1,304 @@
+package mod.trivia.analytics;
+
+import mod.trivia.journal.TriviaJournal;
+import mod.trivia.journal.TriviaJournalEntry;
+import mod.trivia.journal.TriviaJournalReader;
+import mod.trivia.questions.TriviaQuestionStats;
+import mod.trivia.util.AnswerMatcher;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Offline aggregation of the round journal into per-question stats (solve rate, solve-time
+ * percentiles, common wrong answers, AI acceptance).
+ *
+ * Segments are scanned in parallel and streamed one entry at a time, so memory depends on the number
+ * of distinct questions, not on the number of events. Each scan folds what it can into one shared
+ * per-question table; a round cut by a segment boundary is stitched afterwards from the small
+ * head/tail of each segment, in segment order.
+ */
+public final class TriviaQuestionAnalytics {
+	private static final int SOLVE_BUCKETS = 48;
+	private static final double BUCKET_BASE_MILLIS = 100.0;
+	private static final double BUCKET_GROWTH = 1.25;
+	private static final int WRONG_SKETCH_SIZE = 16;
+	private static final int WRONG_REPORTED = 5;
+
+	private static final AtomicBoolean RUNNING = new AtomicBoolean();
+
+	public record Summary(int segments, int questions, long rounds, long guesses, long orphaned, long millis) {
+	}
+
+	private TriviaQuestionAnalytics() {
+	}
+
+	/**
+	 * Aggregates every segment in {@code journalDir} and writes the result to {@code out}.
+	 *
+	 * @throws IllegalStateException if another run is in progress
+	 */
+	public static Summary run(Path journalDir, Path out) throws IOException {
+		if (!RUNNING.compareAndSet(false, true)) {
+			throw new IllegalStateException("analytics already running");
+		}
+		try {
+			long start = System.nanoTime();
+			List<Path> segments = TriviaJournal.segments(journalDir);
+			ConcurrentHashMap<Long, QuestionAcc> table = new ConcurrentHashMap<>();
+			List<SegmentScan> scans;
+			try {
+				scans = segments.parallelStream().map(p -> SegmentScan.of(p, table)).toList();
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+
+			// Stitch rounds that crossed segment boundaries, oldest first.
+			Map<String, RoundInfo> open = new HashMap<>();
+			long rounds = 0;
+			long guesses = 0;
+			long orphaned = 0;
+			for (SegmentScan scan : scans) {
+				rounds += scan.rounds;
+				guesses += scan.guesses;
+				for (TriviaJournalEntry e : scan.head) {
+					RoundInfo round = open.get(roundKey(e));
+					if (round == null) {
+						orphaned++;
+						continue;
+					}
+					if (e instanceof TriviaJournalEntry.Guess) {
+						guesses++;
+					}
+					if (apply(e, round, table)) {
+						open.remove(roundKey(e));
+					}
+				}
+				open.putAll(scan.tail);
+			}
+
+			List<TriviaQuestionStats> stats = new ArrayList<>(table.size());
+			for (QuestionAcc acc : table.values()) {
+				stats.add(acc.toStats());
+			}
+			TriviaQuestionStats.save(out, stats);
+			long millis = (System.nanoTime() - start) / 1_000_000L;
+			return new Summary(segments.size(), stats.size(), rounds, guesses, orphaned, millis);
+		} finally {
+			RUNNING.set(false);
+		}
+	}
+
+	private static String roundKey(TriviaJournalEntry e) {
+		return e.channel() + '#' + e.roundId();
+	}
+
+	/**
+	 * Applies one in-round entry to its question.
+	 *
+	 * @return true if the entry closed the round
+	 */
+	private static boolean apply(TriviaJournalEntry e, RoundInfo round, Map<Long, QuestionAcc> table) {
+		QuestionAcc acc = table.computeIfAbsent(round.questionKey, QuestionAcc::new);
+		if (e instanceof TriviaJournalEntry.Guess g) {
+			if (g.outcome() == TriviaJournalEntry.Guess.MATCHED) {
+				acc.recordSolveTime(g.nanos() - round.startNanos);
+			} else if (g.outcome() == TriviaJournalEntry.Guess.AI_PENDING) {
+				round.pendingAi.put(g.player(), new PendingGuess(g.nanos(), g.guess()));
+			} else {
+				acc.recordWrong(g.guess());
+			}
+		} else if (e instanceof TriviaJournalEntry.AiVerdict v) {
+			PendingGuess pending = round.pendingAi.remove(v.player());
+			acc.recordAiVerdict(v.accepted());
+			if (pending != null) {
+				if (v.accepted()) {
+					acc.recordSolveTime(pending.nanos() - round.startNanos);
+				} else {
+					acc.recordWrong(pending.guess());
+				}
+			}
+		} else if (e instanceof TriviaJournalEntry.RoundEnd end) {
+			// A round dropped by a reset or suspend says nothing about how hard the question is.
+			if (end.reason() != TriviaJournalEntry.RoundEnd.DROPPED) {
+				acc.recordRound(end.participants(), end.solved());
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private record PendingGuess(long nanos, String guess) {
+	}
+
+	private static final class RoundInfo {
+		private final long questionKey;
+		private final long startNanos;
+		private final Map<UUID, PendingGuess> pendingAi = new HashMap<>();
+
+		RoundInfo(long questionKey, long startNanos) {
+			this.questionKey = questionKey;
+			this.startNanos = startNanos;
+		}
+	}
+
+	/**
+	 * One segment's pass: complete rounds go straight into the shared table; entries of rounds that
+	 * started in an earlier segment ({@code head}) and rounds still open at the end ({@code tail}) are
+	 * kept for stitching.
+	 */
+	private static final class SegmentScan {
+		private final List<TriviaJournalEntry> head = new ArrayList<>();
+		private final Map<String, RoundInfo> tail = new LinkedHashMap<>();
+		private long rounds;
+		private long guesses;
+
+		static SegmentScan of(Path segment, Map<Long, QuestionAcc> table) {
+			SegmentScan scan = new SegmentScan();
+			try {
+				TriviaJournalReader.read(segment, e -> scan.accept(e, table));
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return scan;
+		}
+
+		private void accept(TriviaJournalEntry e, Map<Long, QuestionAcc> table) {
+			if (e instanceof TriviaJournalEntry.RoundStart start) {
+				rounds++;
+				tail.put(roundKey(e), new RoundInfo(start.questionKey(), start.nanos()));
+				return;
+			}
+			RoundInfo round = tail.get(roundKey(e));
+			if (round == null) {
+				head.add(e);
+				return;
+			}
+			if (e instanceof TriviaJournalEntry.Guess) {
+				guesses++;
+			}
+			if (apply(e, round, table)) {
+				tail.remove(roundKey(e));
+			}
+		}
+	}
+
+	/**
+	 * Running totals for one question. Updated from several scans at once, hence synchronized.
+	 */
+	private static final class QuestionAcc {
+		private final long key;
+		private int rounds;
+		private int participants;
+		private int solved;
+		private int aiChecks;
+		private int aiAccepted;
+		private final int[] solveBuckets = new int[SOLVE_BUCKETS];
+		// Space-saving sketch: a bounded set of counters that keeps the heavy hitters.
+		private final Map<String, int[]> wrong = new HashMap<>();
+
+		QuestionAcc(long key) {
+			this.key = key;
+		}
+
+		synchronized void recordRound(int participants, int solved) {
+			rounds++;
+			this.participants += participants;
+			this.solved += solved;
+		}
+
+		synchronized void recordAiVerdict(boolean accepted) {
+			aiChecks++;
+			if (accepted) {
+				aiAccepted++;
+			}
+		}
+
+		synchronized void recordSolveTime(long nanos) {
+			solveBuckets[bucketOf(Math.max(0, nanos) / 1_000_000L)]++;
+		}
+
+		synchronized void recordWrong(String guess) {
+			String answer = AnswerMatcher.normalizeLoose(guess);
+			if (answer.isEmpty()) {
+				return;
+			}
+			int[] count = wrong.get(answer);
+			if (count != null) {
+				count[0]++;
+				return;
+			}
+			if (wrong.size() < WRONG_SKETCH_SIZE) {
+				wrong.put(answer, new int[]{1});
+				return;
+			}
+			// Replace the smallest counter; the newcomer inherits its count (the sketch's error bound).
+			String minKey = null;
+			int min = Integer.MAX_VALUE;
+			for (Map.Entry<String, int[]> en : wrong.entrySet()) {
+				if (en.getValue()[0] < min) {
+					min = en.getValue()[0];
+					minKey = en.getKey();
+				}
+			}
+			wrong.remove(minKey);
+			wrong.put(answer, new int[]{min + 1});
+		}
+
+		synchronized TriviaQuestionStats toStats() {
+			List<Map.Entry<String, int[]>> sorted = new ArrayList<>(wrong.entrySet());
+			sorted.sort((a, b) -> Integer.compare(b.getValue()[0], a.getValue()[0]));
+			List<TriviaQuestionStats.WrongAnswer> top = new ArrayList<>();
+			for (int i = 0; i < Math.min(WRONG_REPORTED, sorted.size()); i++) {
+				top.add(new TriviaQuestionStats.WrongAnswer(sorted.get(i).getKey(), sorted.get(i).getValue()[0]));
+			}
+			return new TriviaQuestionStats(
+				key,
+				rounds,
+				participants,
+				solved,
+				aiChecks,
+				aiAccepted,
+				percentileMillis(0.5),
+				percentileMillis(0.9),
+				List.copyOf(top)
+			);
+		}
+
+		private int percentileMillis(double p) {
+			long total = 0;
+			for (int c : solveBuckets) {
+				total += c;
+			}
+			if (total == 0) {
+				return -1;
+			}
+			long seen = 0;
+			for (int i = 0; i < SOLVE_BUCKETS; i++) {
+				seen += solveBuckets[i];
+				if (seen >= Math.ceil(total * p)) {
+					// Geometric middle of the bucket.
+					return (int) Math.round(BUCKET_BASE_MILLIS * Math.pow(BUCKET_GROWTH, i - 0.5));
+				}
+			}
+			return -1;
+		}
+
+		private static int bucketOf(long millis) {
+			if (millis <= BUCKET_BASE_MILLIS) {
+				return 0;
+			}
+			int i = (int) Math.ceil(Math.log(millis / BUCKET_BASE_MILLIS) / Math.log(BUCKET_GROWTH));
+			return Math.min(SOLVE_BUCKETS - 1, Math.max(0, i));
+		}
+	}
+}
@@ -1,17 +1,37 @@
 package mod.trivia.command;
 
 import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.StringReader;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
 import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.builder.LiteralArgumentBuilder;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import mod.trivia.TriviaMod;
 import mod.trivia.config.TriviaConfig;
 import mod.trivia.config.TriviaConfigManager;
+import mod.trivia.game.TriviaAudience;
 import mod.trivia.game.TriviaGame;
+import mod.trivia.questions.TriviaQuestion;
+import mod.trivia.questions.TriviaQuestionIndex;
+import mod.trivia.questions.TriviaQuestionsManager;
+import mod.trivia.stats.TriviaLeaderboard;
+import mod.trivia.stats.TriviaPlayerStats;
+import mod.trivia.util.GuessRateLimiter;
 import net.fabricmc.fabric.api.command.v2.CommandRegistrationCallback;
 import net.minecraft.server.command.CommandManager;
 import net.minecraft.server.command.ServerCommandSource;
+import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 public final class TriviaCommands {
+	private static final int DEFAULT_TOP = 10;
+	private static final int DEFAULT_FIND = 10;
+	private static final int FIND_TEXT_MAX = 80;
+
 	private TriviaCommands() {
 	}
 
@@ -24,8 +44,30 @@ public final class TriviaCommands {
 	private static void registerInternal(CommandDispatcher<ServerCommandSource> dispatcher, TriviaGame game) {
 		dispatcher.register(
 			CommandManager.literal("trivia")
-				.requires(src -> src.hasPermissionLevel(2))
+				// Player-facing chat preferences; everything else requires op.
+				.then(CommandManager.literal("mute")
+					.executes(ctx -> setChatLevel(ctx.getSource(), game, TriviaAudience.Level.MUTED))
+				)
+				.then(CommandManager.literal("quiet")
+					.executes(ctx -> setChatLevel(ctx.getSource(), game, TriviaAudience.Level.QUIET))
+				)
+				.then(CommandManager.literal("unmute")
+					.executes(ctx -> setChatLevel(ctx.getSource(), game, TriviaAudience.Level.ALL))
+				)
+				.then(CommandManager.literal("stats")
+					.executes(ctx -> showStats(ctx.getSource(), game))
+				)
+				.then(CommandManager.literal("top")
+					.executes(ctx -> showTop(ctx.getSource(), game, TriviaLeaderboard.Window.ALL_TIME, DEFAULT_TOP))
+					.then(CommandManager.argument("n", IntegerArgumentType.integer(1, TriviaLeaderboard.MAX_SIZE))
+						.executes(ctx -> showTop(ctx.getSource(), game, TriviaLeaderboard.Window.ALL_TIME, IntegerArgumentType.getInteger(ctx, "n")))
+					)
+					.then(topWindow(game, "week", TriviaLeaderboard.Window.WEEKLY))
+					.then(topWindow(game, "month", TriviaLeaderboard.Window.MONTHLY))
+					.then(topWindow(game, "all", TriviaLeaderboard.Window.ALL_TIME))
+				)
 				.then(CommandManager.literal("status")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> {
 						TriviaConfig cfg = TriviaConfigManager.getConfig();
 						ctx.getSource().sendFeedback(
@@ -36,6 +78,9 @@ public final class TriviaCommands {
 									+ " | battle: " + (cfg.battleModeWrongGuessBroadcast ? "ON" : "OFF")
 									+ " | battle name: " + (cfg.battleModeShowWrongGuesserName ? "ON" : "OFF")
 									+ " | rewardCountOverride: " + cfg.rewardCountOverride
+									+ " | dropped guesses: " + game.getGuessLimiter().totalDropped()
+									+ " | channels: " + cfg.channelMode + " (" + game.getChannels().size() + ")"
+									+ " | adaptive: " + game.describeAdaptive()
 							),
 							false
 						);
@@ -43,6 +88,7 @@ public final class TriviaCommands {
 					})
 				)
 				.then(CommandManager.literal("announce")
+					.requires(TriviaCommands::isAdmin)
 					.then(CommandManager.literal("on")
 						.executes(ctx -> setAnnounce(ctx.getSource(), game, true))
 					)
@@ -57,6 +103,7 @@ public final class TriviaCommands {
 					)
 				)
 				.then(CommandManager.literal("battle")
+					.requires(TriviaCommands::isAdmin)
 					.then(CommandManager.literal("on")
 						.executes(ctx -> setBattleMode(ctx.getSource(), game, true))
 					)
@@ -85,6 +132,7 @@ public final class TriviaCommands {
 					)
 				)
 				.then(CommandManager.literal("hint")
+					.requires(TriviaCommands::isAdmin)
 					.then(CommandManager.literal("on")
 						.executes(ctx -> setShowInstructions(ctx.getSource(), game, true))
 					)
@@ -99,24 +147,68 @@ public final class TriviaCommands {
 					)
 				)
 				.then(CommandManager.literal("ask")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> forceAsk(ctx.getSource(), game))
+					.then(CommandManager.argument("id", IntegerArgumentType.integer(0))
+						.executes(ctx -> forceAskQuestion(ctx.getSource(), game, IntegerArgumentType.getInteger(ctx, "id")))
+					)
+				)
+				.then(CommandManager.literal("add")
+					.requires(TriviaCommands::isAdmin)
+					.then(CommandManager.argument("question", StringArgumentType.string())
+						.then(CommandManager.argument("answer", StringArgumentType.string())
+							.executes(ctx -> addQuestion(
+								ctx.getSource(),
+								game,
+								StringArgumentType.getString(ctx, "question"),
+								StringArgumentType.getString(ctx, "answer"),
+								""
+							))
+							.then(CommandManager.argument("aliases", StringArgumentType.greedyString())
+								.executes(ctx -> addQuestion(
+									ctx.getSource(),
+									game,
+									StringArgumentType.getString(ctx, "question"),
+									StringArgumentType.getString(ctx, "answer"),
+									StringArgumentType.getString(ctx, "aliases")
+								))
+							)
+						)
+					)
+				)
+				.then(CommandManager.literal("remove")
+					.requires(TriviaCommands::isAdmin)
+					.then(CommandManager.argument("id", IntegerArgumentType.integer(0))
+						.executes(ctx -> removeQuestion(ctx.getSource(), game, IntegerArgumentType.getInteger(ctx, "id")))
+					)
+				)
+				.then(CommandManager.literal("find")
+					.requires(TriviaCommands::isAdmin)
+					.then(CommandManager.argument("terms", StringArgumentType.greedyString())
+						.executes(ctx -> findQuestions(ctx.getSource(), game, StringArgumentType.getString(ctx, "terms")))
+					)
 				)
 				.then(CommandManager.literal("next")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> forceAsk(ctx.getSource(), game))
 				)
 				.then(CommandManager.literal("enable")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> setEnabled(ctx.getSource(), game, true))
 				)
 				.then(CommandManager.literal("disable")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> setEnabled(ctx.getSource(), game, false))
 				)
 				.then(CommandManager.literal("toggle")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> {
 						TriviaConfig cfg = TriviaConfigManager.getConfig();
 						return setEnabled(ctx.getSource(), game, !cfg.enabled);
 					})
 				)
 				.then(CommandManager.literal("reload")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> {
 						try {
 							game.reloadFromDisk();
@@ -129,9 +221,18 @@ public final class TriviaCommands {
 						}
 					})
 				)
+				.then(CommandManager.literal("analyze")
+					.requires(TriviaCommands::isAdmin)
+					.executes(ctx -> analyzeHistory(ctx.getSource(), game))
+				)
+				.then(CommandManager.literal("ratelimit")
+					.requires(TriviaCommands::isAdmin)
+					.executes(ctx -> showRateLimit(ctx.getSource(), game))
+				)
 				.then(CommandManager.literal("answer")
+					.requires(TriviaCommands::isAdmin)
 					.executes(ctx -> {
-						String answer = game.getActiveAnswerForAdmin();
+						String answer = game.getActiveAnswerForAdmin(ctx.getSource().getPlayer());
 						if (answer == null) {
 							ctx.getSource().sendError(Text.literal("Trivia: no active question."));
 							return 0;
@@ -141,6 +242,7 @@ public final class TriviaCommands {
 					})
 				)
 				.then(CommandManager.literal("ai")
+					.requires(TriviaCommands::isAdmin)
 					.then(CommandManager.literal("status")
 						.executes(ctx -> {
 							TriviaConfig cfg = TriviaConfigManager.getConfig();
@@ -157,22 +259,22 @@ public final class TriviaCommands {
 						})
 					)
 					.then(CommandManager.literal("on")
-						.executes(ctx -> setAiEnabled(ctx.getSource(), true))
+						.executes(ctx -> setAiEnabled(ctx.getSource(), game, true))
 					)
 					.then(CommandManager.literal("off")
-						.executes(ctx -> setAiEnabled(ctx.getSource(), false))
+						.executes(ctx -> setAiEnabled(ctx.getSource(), game, false))
 					)
 					.then(CommandManager.literal("toggle")
 						.executes(ctx -> {
 							TriviaConfig cfg = TriviaConfigManager.getConfig();
-							return setAiEnabled(ctx.getSource(), !cfg.aiEnabled);
+							return setAiEnabled(ctx.getSource(), game, !cfg.aiEnabled);
 						})
 					)
 					.then(CommandManager.literal("key")
 						.then(CommandManager.argument("apiKey", StringArgumentType.string())
 							.executes(ctx -> {
 								String key = StringArgumentType.getString(ctx, "apiKey");
-								return setAiKey(ctx.getSource(), key);
+								return setAiKey(ctx.getSource(), game, key);
 							})
 						)
 					)
@@ -180,7 +282,7 @@ public final class TriviaCommands {
 						.then(CommandManager.argument("model", StringArgumentType.string())
 							.executes(ctx -> {
 								String model = StringArgumentType.getString(ctx, "model");
-								return setAiModel(ctx.getSource(), model);
+								return setAiModel(ctx.getSource(), game, model);
 							})
 						)
 					)
@@ -188,11 +290,12 @@ public final class TriviaCommands {
 		);
 	}
 
-	private static int setAiEnabled(ServerCommandSource source, boolean enabled) {
+	private static int setAiEnabled(ServerCommandSource source, TriviaGame game, boolean enabled) {
 		try {
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			TriviaConfig cfg = previous.copy();
 			cfg.aiEnabled = enabled;
-			TriviaConfigManager.saveConfig(cfg);
+			persist(source, game, previous, cfg, "Trivia AI toggle");
 			source.sendFeedback(() -> Text.literal("Trivia AI mode is now " + (enabled ? "ON" : "OFF") + "."), true);
 			return 1;
 		} catch (Exception e) {
@@ -202,17 +305,18 @@ public final class TriviaCommands {
 		}
 	}
 
-	private static int setAiKey(ServerCommandSource source, String apiKey) {
+	private static int setAiKey(ServerCommandSource source, TriviaGame game, String apiKey) {
 		try {
 			String key = apiKey == null ? "" : apiKey.trim();
 			if (key.isEmpty()) {
 				source.sendError(Text.literal("Trivia: API key cannot be empty."));
 				return 0;
 			}
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			TriviaConfig cfg = previous.copy();
 			cfg.openAiApiKey = key;
 			cfg.aiEnabled = true;
-			TriviaConfigManager.saveConfig(cfg);
+			persist(source, game, previous, cfg, "Trivia AI key set");
 			source.sendFeedback(
 				() -> Text.literal("Trivia: OpenAI API key saved to config. AI mode turned ON."),
 				true
@@ -225,16 +329,17 @@ public final class TriviaCommands {
 		}
 	}
 
-	private static int setAiModel(ServerCommandSource source, String model) {
+	private static int setAiModel(ServerCommandSource source, TriviaGame game, String model) {
 		try {
 			String m = model == null ? "" : model.trim();
 			if (m.isEmpty()) {
 				source.sendError(Text.literal("Trivia: model cannot be empty."));
 				return 0;
 			}
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			TriviaConfig cfg = previous.copy();
 			cfg.openAiModel = m;
-			TriviaConfigManager.saveConfig(cfg);
+			persist(source, game, previous, cfg, "Trivia AI model set");
 			source.sendFeedback(() -> Text.literal("Trivia AI model set to: " + m), true);
 			return 1;
 		} catch (Exception e) {
@@ -244,13 +349,131 @@ public final class TriviaCommands {
 		}
 	}
 
+	private static boolean isAdmin(ServerCommandSource source) {
+		return source.hasPermissionLevel(2);
+	}
+
+	private static int setChatLevel(ServerCommandSource source, TriviaGame game, TriviaAudience.Level level) {
+		ServerPlayerEntity player = source.getPlayer();
+		if (player == null) {
+			source.sendError(Text.literal("Trivia: only players can change their trivia chat preference."));
+			return 0;
+		}
+		game.getAudience().set(player.getUuid(), level);
+		String msg = switch (level) {
+			case ALL -> "Trivia: you will see all trivia messages.";
+			case QUIET -> "Trivia: quiet mode, you will only see questions, hints and results. /trivia unmute to undo.";
+			case MUTED -> "Trivia: muted, you will not see trivia broadcasts. /trivia unmute to undo.";
+		};
+		source.sendFeedback(() -> Text.literal(msg), false);
+		return 1;
+	}
+
+	private static int showStats(ServerCommandSource source, TriviaGame game) {
+		ServerPlayerEntity player = source.getPlayer();
+		if (player == null) {
+			source.sendError(Text.literal("Trivia: only players have trivia stats."));
+			return 0;
+		}
+		TriviaPlayerStats s = game.getStats().get(player.getUuid());
+		if (s == null || s.roundsPlayed == 0) {
+			source.sendFeedback(() -> Text.literal("Trivia: no stats yet. Answer a question first!"), false);
+			return 1;
+		}
+		long median = s.medianSolveMillis();
+		String medianText = median < 0 ? "-" : String.format(Locale.ROOT, "%.1fs", median / 1000.0);
+		source.sendFeedback(
+			() -> Text.literal(
+				"Trivia stats: rounds " + s.roundsPlayed
+					+ " | solved " + s.solves + " (" + s.accuracyPercent() + "%)"
+					+ " | failed " + s.fails
+					+ " | streak " + s.currentStreak + " (best " + s.bestStreak + ")"
+					+ " | median solve " + medianText
+					+ " | hints " + s.hintsUsed
+			),
+			false
+		);
+		return 1;
+	}
+
+	private static LiteralArgumentBuilder<ServerCommandSource> topWindow(TriviaGame game, String name, TriviaLeaderboard.Window window) {
+		return CommandManager.literal(name)
+			.executes(ctx -> showTop(ctx.getSource(), game, window, DEFAULT_TOP))
+			.then(CommandManager.argument("n", IntegerArgumentType.integer(1, TriviaLeaderboard.MAX_SIZE))
+				.executes(ctx -> showTop(ctx.getSource(), game, window, IntegerArgumentType.getInteger(ctx, "n")))
+			);
+	}
+
+	private static int showTop(ServerCommandSource source, TriviaGame game, TriviaLeaderboard.Window window, int n) {
+		List<TriviaLeaderboard.Entry> top = game.getLeaderboard().top(window, n);
+		if (top.isEmpty()) {
+			source.sendFeedback(() -> Text.literal("Trivia top (" + window.label() + "): nobody has solved a question yet."), false);
+			return 1;
+		}
+		StringBuilder sb = new StringBuilder("Trivia top (").append(window.label()).append("):");
+		for (int i = 0; i < top.size(); i++) {
+			TriviaLeaderboard.Entry e = top.get(i);
+			String name = e.name() == null ? e.player().toString().substring(0, 8) : e.name();
+			sb.append(i == 0 ? " " : ", ").append(i + 1).append(". ").append(name).append(" ").append(e.score());
+		}
+		String msg = sb.toString();
+		source.sendFeedback(() -> Text.literal(msg), false);
+		return top.size();
+	}
+
+	private static int analyzeHistory(ServerCommandSource source, TriviaGame game) {
+		source.sendFeedback(() -> Text.literal("Trivia: analyzing round history in the background..."), true);
+		game.analyzeHistory(source.getServer()).whenComplete((summary, error) -> source.getServer().execute(() -> {
+			if (error != null) {
+				Throwable cause = error.getCause() != null ? error.getCause() : error;
+				TriviaMod.LOGGER.error("Trivia analytics failed", cause);
+				source.sendError(Text.literal("Trivia analytics failed: " + cause.getMessage()));
+				return;
+			}
+			source.sendFeedback(
+				() -> Text.literal(
+					"Trivia analytics: " + summary.questions() + " questions from " + summary.rounds() + " rounds, "
+						+ summary.guesses() + " guesses in " + summary.segments() + " segments ("
+						+ summary.millis() + " ms, " + summary.orphaned() + " unmatched events)"
+				),
+				true
+			);
+		}));
+		return 1;
+	}
+
+	private static int showRateLimit(ServerCommandSource source, TriviaGame game) {
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		GuessRateLimiter limiter = game.getGuessLimiter();
+		StringBuilder offenders = new StringBuilder();
+		for (ServerPlayerEntity p : source.getServer().getPlayerManager().getPlayerList()) {
+			long dropped = limiter.droppedFor(p.getId());
+			if (dropped <= 0) {
+				continue;
+			}
+			if (!offenders.isEmpty()) {
+				offenders.append(", ");
+			}
+			offenders.append(p.getName().getString()).append(": ").append(dropped);
+		}
+		String limit = limiter.isEnabled()
+			? (cfg.guessRateLimitPerSecond + "/s, burst " + cfg.guessRateLimitBurst)
+			: "OFF";
+		String online = offenders.isEmpty() ? "none" : offenders.toString();
+		source.sendFeedback(
+			() -> Text.literal("Trivia guess limit: " + limit + " | dropped total: " + limiter.totalDropped() + " | online: " + online),
+			false
+		);
+		return 1;
+	}
+
 	private static int forceAsk(ServerCommandSource source, TriviaGame game) {
 		TriviaConfig cfg = TriviaConfigManager.getConfig();
 		if (!cfg.enabled) {
 			source.sendError(Text.literal("Trivia is disabled. Use /trivia enable first."));
 			return 0;
 		}
-		boolean started = game.forceStartRandomQuestionIfIdle(source.getServer());
+		boolean started = game.forceStartRandomQuestionIfIdle(source.getServer(), source.getPlayer());
 		if (!started) {
 			source.sendError(Text.literal("A trivia question is already active."));
 			return 0;
@@ -259,16 +482,131 @@ public final class TriviaCommands {
 		return 1;
 	}
 
+	private static int forceAskQuestion(ServerCommandSource source, TriviaGame game, int id) {
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		if (!cfg.enabled) {
+			source.sendError(Text.literal("Trivia is disabled. Use /trivia enable first."));
+			return 0;
+		}
+		TriviaQuestionsManager manager = game.getQuestionsManager();
+		if (id >= manager.getQuestions().size() || manager.isRemoved(id)) {
+			source.sendError(Text.literal("Trivia: no question #" + id + ". Use /trivia find to look one up."));
+			return 0;
+		}
+		boolean started = game.forceStartQuestionIfIdle(source.getServer(), source.getPlayer(), id);
+		if (!started) {
+			source.sendError(Text.literal("A trivia question is already active."));
+			return 0;
+		}
+		source.sendFeedback(() -> Text.literal("Started trivia question #" + id + " (cooldown restarted after it ends)."), true);
+		return 1;
+	}
+
+	private static int addQuestion(ServerCommandSource source, TriviaGame game, String question, String answer, String rawAliases) {
+		try {
+			if (question.isBlank() || answer.isBlank()) {
+				source.sendError(Text.literal("Trivia: question and answer cannot be empty."));
+				return 0;
+			}
+			TriviaQuestionsManager manager = game.getQuestionsManager();
+			int existing = manager.findLive(question);
+			if (existing >= 0) {
+				source.sendError(Text.literal("Trivia: that question is already in the bank as #" + existing + "."));
+				return 0;
+			}
+			TriviaQuestion q = new TriviaQuestion(question.strip(), answer.strip());
+			List<String> aliases = parseAliases(rawAliases);
+			if (!aliases.isEmpty()) {
+				q.aliases = aliases;
+			}
+			int id = manager.addQuestion(q);
+			TriviaMod.LOGGER.info("Trivia: {} added question #{}: {}", source.getName(), id, q.question);
+			source.sendFeedback(
+				() -> Text.literal("Trivia: added question #" + id + (aliases.isEmpty() ? "" : " with " + aliases.size() + " alias(es)") + "."),
+				true
+			);
+			return 1;
+		} catch (Exception e) {
+			TriviaMod.LOGGER.error("Trivia add question failed", e);
+			source.sendError(Text.literal("Trivia add question failed: " + e.getMessage()));
+			return 0;
+		}
+	}
+
+	/**
+	 * Aliases as quoted or bare words, e.g. {@code "Big Apple" NYC}.
+	 */
+	private static List<String> parseAliases(String raw) throws CommandSyntaxException {
+		List<String> out = new ArrayList<>();
+		StringReader reader = new StringReader(raw);
+		while (true) {
+			reader.skipWhitespace();
+			if (!reader.canRead()) {
+				return out;
+			}
+			String alias = reader.readString().strip();
+			if (!alias.isEmpty()) {
+				out.add(alias);
+			}
+		}
+	}
+
+	private static int removeQuestion(ServerCommandSource source, TriviaGame game, int id) {
+		try {
+			TriviaQuestionsManager manager = game.getQuestionsManager();
+			if (id >= manager.getQuestions().size() || manager.isRemoved(id)) {
+				source.sendError(Text.literal("Trivia: no question #" + id + ". Use /trivia find to look one up."));
+				return 0;
+			}
+			String question = manager.getQuestions().get(id).question;
+			int removed = manager.removeQuestion(id);
+			TriviaMod.LOGGER.info("Trivia: {} removed question #{} ({} copies): {}", source.getName(), id, removed, question);
+			String copies = removed > 1 ? " (and " + (removed - 1) + " duplicate(s) with the same text)" : "";
+			source.sendFeedback(() -> Text.literal("Trivia: removed question #" + id + copies + ": " + abbreviate(question, FIND_TEXT_MAX)), true);
+			return 1;
+		} catch (Exception e) {
+			TriviaMod.LOGGER.error("Trivia remove question failed", e);
+			source.sendError(Text.literal("Trivia remove question failed: " + e.getMessage()));
+			return 0;
+		}
+	}
+
+	private static int findQuestions(ServerCommandSource source, TriviaGame game, String terms) {
+		long start = System.nanoTime();
+		List<TriviaQuestionIndex.Match> matches = game.getQuestionsManager().getIndex().search(terms, DEFAULT_FIND);
+		long micros = (System.nanoTime() - start) / 1_000L;
+		if (matches.isEmpty()) {
+			source.sendFeedback(() -> Text.literal("Trivia find: no questions match \"" + terms + "\"."), false);
+			return 0;
+		}
+		List<TriviaQuestion> qs = game.getQuestionsManager().getQuestions();
+		source.sendFeedback(
+			() -> Text.literal("Trivia find: top " + matches.size() + " for \"" + terms + "\" (" + micros + " us). Ask one with /trivia ask <id>."),
+			false
+		);
+		for (TriviaQuestionIndex.Match m : matches) {
+			TriviaQuestion q = qs.get(m.index());
+			String line = "#" + m.index() + " " + abbreviate(q.question, FIND_TEXT_MAX) + " -> " + abbreviate(q.answer, FIND_TEXT_MAX);
+			source.sendFeedback(() -> Text.literal(line), false);
+		}
+		return matches.size();
+	}
+
+	private static String abbreviate(String s, int max) {
+		String t = s == null ? "" : s.strip();
+		return t.length() <= max ? t : t.substring(0, max - 3) + "...";
+	}
+
 	private static int setEnabled(ServerCommandSource source, TriviaGame game, boolean enabled) {
 		try {
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
-			if (cfg.enabled == enabled) {
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			if (previous.enabled == enabled) {
 				source.sendFeedback(() -> Text.literal("Trivia already " + (enabled ? "enabled" : "disabled") + "."), false);
 				return 1;
 			}
+			TriviaConfig cfg = previous.copy();
 			cfg.enabled = enabled;
-			TriviaConfigManager.saveConfig(cfg);
-			game.reloadFromDisk();
+			persist(source, game, previous, cfg, "Trivia enable/disable");
 			source.sendFeedback(() -> Text.literal("Trivia " + (enabled ? "enabled" : "disabled") + "."), true);
 			return 1;
 		} catch (Exception e) {
@@ -280,17 +618,17 @@ public final class TriviaCommands {
 
 	private static int setShowInstructions(ServerCommandSource source, TriviaGame game, boolean showInstructions) {
 		try {
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
-			if (cfg.showAnswerInstructions == showInstructions) {
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			if (previous.showAnswerInstructions == showInstructions) {
 				source.sendFeedback(
 					() -> Text.literal("Trivia instruction line already " + (showInstructions ? "ON" : "OFF") + "."),
 					false
 				);
 				return 1;
 			}
+			TriviaConfig cfg = previous.copy();
 			cfg.showAnswerInstructions = showInstructions;
-			TriviaConfigManager.saveConfig(cfg);
-			game.reloadFromDisk();
+			persist(source, game, previous, cfg, "Trivia hint toggle");
 			source.sendFeedback(
 				() -> Text.literal("Trivia instruction line is now " + (showInstructions ? "ON" : "OFF") + "."),
 				true
@@ -305,17 +643,17 @@ public final class TriviaCommands {
 
 	private static int setBattleMode(ServerCommandSource source, TriviaGame game, boolean battleModeWrongGuessBroadcast) {
 		try {
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
-			if (cfg.battleModeWrongGuessBroadcast == battleModeWrongGuessBroadcast) {
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			if (previous.battleModeWrongGuessBroadcast == battleModeWrongGuessBroadcast) {
 				source.sendFeedback(
 					() -> Text.literal("Trivia battle mode already " + (battleModeWrongGuessBroadcast ? "ON" : "OFF") + "."),
 					false
 				);
 				return 1;
 			}
+			TriviaConfig cfg = previous.copy();
 			cfg.battleModeWrongGuessBroadcast = battleModeWrongGuessBroadcast;
-			TriviaConfigManager.saveConfig(cfg);
-			game.reloadFromDisk();
+			persist(source, game, previous, cfg, "Trivia battle toggle");
 			source.sendFeedback(
 				() -> Text.literal("Trivia battle mode is now " + (battleModeWrongGuessBroadcast ? "ON" : "OFF") + "."),
 				true
@@ -330,17 +668,17 @@ public final class TriviaCommands {
 
 	private static int setBattleName(ServerCommandSource source, TriviaGame game, boolean battleModeShowWrongGuesserName) {
 		try {
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
-			if (cfg.battleModeShowWrongGuesserName == battleModeShowWrongGuesserName) {
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			if (previous.battleModeShowWrongGuesserName == battleModeShowWrongGuesserName) {
 				source.sendFeedback(
 					() -> Text.literal("Trivia battle name display already " + (battleModeShowWrongGuesserName ? "ON" : "OFF") + "."),
 					false
 				);
 				return 1;
 			}
+			TriviaConfig cfg = previous.copy();
 			cfg.battleModeShowWrongGuesserName = battleModeShowWrongGuesserName;
-			TriviaConfigManager.saveConfig(cfg);
-			game.reloadFromDisk();
+			persist(source, game, previous, cfg, "Trivia battle name toggle");
 			source.sendFeedback(
 				() -> Text.literal("Trivia battle name display is now " + (battleModeShowWrongGuesserName ? "ON" : "OFF") + "."),
 				true
@@ -355,17 +693,17 @@ public final class TriviaCommands {
 
 	private static int setAnnounce(ServerCommandSource source, TriviaGame game, boolean announceCorrectGuesses) {
 		try {
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
-			if (cfg.announceCorrectGuesses == announceCorrectGuesses) {
+			TriviaConfig previous = TriviaConfigManager.getConfig();
+			if (previous.announceCorrectGuesses == announceCorrectGuesses) {
 				source.sendFeedback(
 					() -> Text.literal("Trivia correct-guess announce already " + (announceCorrectGuesses ? "ON" : "OFF") + "."),
 					false
 				);
 				return 1;
 			}
+			TriviaConfig cfg = previous.copy();
 			cfg.announceCorrectGuesses = announceCorrectGuesses;
-			TriviaConfigManager.saveConfig(cfg);
-			game.reloadFromDisk();
+			persist(source, game, previous, cfg, "Trivia announce toggle");
 			source.sendFeedback(
 				() -> Text.literal("Trivia correct-guess announce is now " + (announceCorrectGuesses ? "ON" : "OFF") + "."),
 				true
@@ -377,4 +715,19 @@ public final class TriviaCommands {
 			return 0;
 		}
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Applies {@code cfg} in memory right away and saves it in the background. Write failures are
+	 * reported back to the command source on the server thread.
+	 */
+	private static void persist(ServerCommandSource source, TriviaGame game, TriviaConfig previous, TriviaConfig cfg, String what) {
+		TriviaConfigManager.saveConfigAsync(cfg).whenComplete((ignored, ex) -> {
+			if (ex == null) {
+				return;
+			}
+			TriviaMod.LOGGER.error(what + " could not be saved", ex);
+			source.getServer().execute(() -> source.sendError(Text.literal(what + " could not be saved: " + ex.getMessage())));
+		});
+		game.applyConfigChange(previous, cfg);
+	}
+}
@@ -1,9 +1,16 @@
 package mod.trivia.config;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class TriviaConfig {
+	/**
+	 * Schema version of settings.json; bumped by TriviaConfigMigrations. Do not edit by hand.
+	 */
+	public int configVersion = TriviaConfigMigrations.CURRENT_VERSION;
+
 	public boolean enabled = true;
 
 	/**
@@ -62,14 +69,104 @@ public final class TriviaConfig {
 	public int questionDurationSeconds = 60;
 	public int cooldownSeconds = 540;
 
+	/**
+	 * Selection weight multipliers by question category / difficulty (case-insensitive). A question's
+	 * chance is its own weight times both multipliers; unlisted values count as 1, and 0 disables them.
+	 */
+	public Map<String, Double> categoryWeights = new LinkedHashMap<>();
+	public Map<String, Double> difficultyWeights = new LinkedHashMap<>();
+
+	/**
+	 * Adaptive difficulty: shifts selection toward easier or harder questions (by observed solve rate)
+	 * to keep the recent audience solve rate near adaptiveTargetSolveRate, and sizes each classic
+	 * round at adaptiveDurationFactor times the question's mean solve time (half to twice
+	 * questionDurationSeconds). History comes from /trivia analyze and live rounds.
+	 */
+	public boolean adaptiveDifficulty = false;
+	public double adaptiveTargetSolveRate = 0.5;
+	public double adaptiveDurationFactor = 3.0;
+
+	/**
+	 * Prefer questions that none of the channel's online players has been asked before (history kept
+	 * per player in config/trivia/seen).
+	 */
+	public boolean preferUnseenQuestions = true;
+
+	/**
+	 * Clock used for round timing: "wall" (real time, unaffected by server lag) or "tick"
+	 * (server ticks, so a lagging server stretches rounds).
+	 */
+	public String schedulerClock = "wall";
+
+	/**
+	 * How players are split into independent trivia channels: "global" (one round for everyone),
+	 * "dimension" (one round per dimension) or "team" (one per scoreboard team; players without a
+	 * team share the global channel).
+	 */
+	public String channelMode = "global";
+
+	/**
+	 * "classic": one question per round. "speed": a burst of speedRoundQuestions short questions back
+	 * to back, scored by how fast each correct answer arrived, followed by the normal cooldown.
+	 */
+	public String roundMode = "classic";
+	public int speedRoundQuestions = 5;
+	public int speedQuestionSeconds = 15;
+
+	/**
+	 * Team play: players on a vanilla scoreboard team answer together. The first correct answer
+	 * solves the question (and rewards) the whole team; wrong guesses draw from a shared pool of
+	 * teamMaxAttempts tries (-1 = unlimited). Players without a team play individually.
+	 */
+	public boolean teamPlay = false;
+	public int teamMaxAttempts = 5;
+
+	/**
+	 * Name of a vanilla scoreboard objective mirroring all-time solves ("" = off). Created as a dummy
+	 * objective if missing; updated once per round end for players whose totals changed.
+	 */
+	public String leaderboardObjective = "";
+
+	/**
+	 * Structured round journal (config/trivia/journal/): round starts with their RNG seed, guesses,
+	 * AI verdicts, rewards, effects and round ends, in 4 MiB segments. The oldest segments beyond
+	 * roundJournalMaxSegments are deleted (0 = keep all).
+	 */
+	public boolean roundJournal = true;
+	public int roundJournalMaxSegments = 16;
+
+	/**
+	 * Ends the round early once every online player has solved or failed.
+	 */
+	public boolean endRoundWhenAllAnswered = true;
+
+	/**
+	 * Shortens the cooldown after rounds with high participation, down to adaptiveCooldownMinSeconds
+	 * when every online player guessed.
+	 */
+	public boolean adaptiveCooldown = false;
+	public int adaptiveCooldownMinSeconds = 120;
+
 	/**
 	 * Max attempts per player per round.
 	 * Use -1 for unlimited attempts until the time limit expires.
 	 */
 	public int maxAttempts = 3;
+
+	/**
+	 * Per-player answer rate limit (token bucket), checked before any matching.
+	 * Excess guesses are dropped. Set guessRateLimitPerSecond to 0 to disable.
+	 */
+	public int guessRateLimitPerSecond = 2;
+	public int guessRateLimitBurst = 5;
 	public String answerPrefix = ".";
 	public boolean showAnswerInstructions = true;
 
+	/**
+	 * Logs every Nth chat answer attempt at INFO (0 disables; useful only when debugging).
+	 */
+	public int chatLogSampleRate = 0;
+
 	/**
 	 * When enabled, broadcasts a global message when someone guesses correctly ("<player> guessed correctly!").
 	 * Private reward messages are unaffected.
@@ -87,6 +184,17 @@ public final class TriviaConfig {
 	 */
 	public boolean battleModeShowWrongGuesserName = true;
 
+	/**
+	 * Wrong-guess broadcasts within this window are merged into one summary line (0 = send each immediately).
+	 * Correct-guess announcements are never delayed.
+	 */
+	public int battleBroadcastWindowMillis = 1000;
+
+	/**
+	 * Max length of a merged wrong-guess summary line; extra guesses are shown as "(+N more)".
+	 */
+	public int battleBroadcastMaxLength = 256;
+
 	/**
 	 * Override the number of items rewarded on a correct guess.
 	 * Use -1 for the normal random behavior (1..max stack size).
@@ -102,6 +210,7 @@ public final class TriviaConfig {
 
 	public TriviaConfig copy() {
 		TriviaConfig c = new TriviaConfig();
+		c.configVersion = this.configVersion;
 		c.enabled = this.enabled;
 		c.aiEnabled = this.aiEnabled;
 		c.openAiApiKey = this.openAiApiKey;
@@ -114,12 +223,36 @@ public final class TriviaConfig {
 		c.fuzzyMaxEditDistance = this.fuzzyMaxEditDistance;
 		c.questionDurationSeconds = this.questionDurationSeconds;
 		c.cooldownSeconds = this.cooldownSeconds;
+		c.categoryWeights = (this.categoryWeights == null) ? new LinkedHashMap<>() : new LinkedHashMap<>(this.categoryWeights);
+		c.difficultyWeights = (this.difficultyWeights == null) ? new LinkedHashMap<>() : new LinkedHashMap<>(this.difficultyWeights);
+		c.adaptiveDifficulty = this.adaptiveDifficulty;
+		c.adaptiveTargetSolveRate = this.adaptiveTargetSolveRate;
+		c.adaptiveDurationFactor = this.adaptiveDurationFactor;
+		c.preferUnseenQuestions = this.preferUnseenQuestions;
+		c.schedulerClock = this.schedulerClock;
+		c.channelMode = this.channelMode;
+		c.roundMode = this.roundMode;
+		c.speedRoundQuestions = this.speedRoundQuestions;
+		c.speedQuestionSeconds = this.speedQuestionSeconds;
+		c.teamPlay = this.teamPlay;
+		c.teamMaxAttempts = this.teamMaxAttempts;
+		c.leaderboardObjective = this.leaderboardObjective;
+		c.roundJournal = this.roundJournal;
+		c.roundJournalMaxSegments = this.roundJournalMaxSegments;
+		c.endRoundWhenAllAnswered = this.endRoundWhenAllAnswered;
+		c.adaptiveCooldown = this.adaptiveCooldown;
+		c.adaptiveCooldownMinSeconds = this.adaptiveCooldownMinSeconds;
 		c.maxAttempts = this.maxAttempts;
+		c.guessRateLimitPerSecond = this.guessRateLimitPerSecond;
+		c.guessRateLimitBurst = this.guessRateLimitBurst;
 		c.answerPrefix = this.answerPrefix;
 		c.showAnswerInstructions = this.showAnswerInstructions;
+		c.chatLogSampleRate = this.chatLogSampleRate;
 		c.announceCorrectGuesses = this.announceCorrectGuesses;
 		c.battleModeWrongGuessBroadcast = this.battleModeWrongGuessBroadcast;
 		c.battleModeShowWrongGuesserName = this.battleModeShowWrongGuesserName;
+		c.battleBroadcastWindowMillis = this.battleBroadcastWindowMillis;
+		c.battleBroadcastMaxLength = this.battleBroadcastMaxLength;
 		c.rewardCountOverride = this.rewardCountOverride;
 		c.punishEffectDurationSecondsMin = this.punishEffectDurationSecondsMin;
 		c.punishEffectDurationSecondsMax = this.punishEffectDurationSecondsMax;
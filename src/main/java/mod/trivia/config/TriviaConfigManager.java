@@ -11,14 +11,17 @@ import net.fabricmc.loader.api.FabricLoader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.CompletableFuture;
 
 public final class TriviaConfigManager {
 	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 	private static final String DEFAULT_SETTINGS_RESOURCE = "trivia/default_settings.json";
+	private static final TriviaConfigWriter WRITER = new TriviaConfigWriter(GSON);
 
 	private static TriviaConfig config;
 
@@ -26,6 +29,7 @@ public final class TriviaConfigManager {
 	}
 
 	public static void loadAll() {
+		WRITER.awaitIdle();
 		config = loadOrCreateConfig();
 	}
 
@@ -52,79 +56,22 @@ public final class TriviaConfigManager {
 			if (Files.notExists(file)) {
 				writeDefaultResource(DEFAULT_SETTINGS_RESOURCE, file);
 			}
-			String json = Files.readString(file, StandardCharsets.UTF_8);
-			TriviaConfig loaded = GSON.fromJson(json, TriviaConfig.class);
-			TriviaConfig cfg = loaded != null ? loaded : new TriviaConfig();
-
-			// Migrate older configs: if the key is missing, default to showing the instruction line.
-			boolean changed = false;
-			try {
-				JsonElement root = JsonParser.parseString(json);
-				if (root != null && root.isJsonObject()) {
-					JsonObject obj = root.getAsJsonObject();
-					if (!obj.has("showAnswerInstructions")) {
-						cfg.showAnswerInstructions = true;
-						changed = true;
-					}
-					if (!obj.has("announceCorrectGuesses")) {
-						cfg.announceCorrectGuesses = true;
-						changed = true;
-					}
-					if (!obj.has("battleModeWrongGuessBroadcast")) {
-						cfg.battleModeWrongGuessBroadcast = true;
-						changed = true;
-					}
-					if (!obj.has("rewardCountOverride")) {
-						cfg.rewardCountOverride = -1;
-						changed = true;
-					}
-					if (!obj.has("battleModeShowWrongGuesserName")) {
-						cfg.battleModeShowWrongGuesserName = true;
-						changed = true;
-					}
-					if (!obj.has("aiEnabled")) {
-						cfg.aiEnabled = false;
-						changed = true;
-					}
-					if (!obj.has("openAiApiKey")) {
-						cfg.openAiApiKey = "";
-						changed = true;
-					}
-					if (!obj.has("openAiModel")) {
-						cfg.openAiModel = "gpt-4o-mini";
-						changed = true;
-					}
-					if (!obj.has("aiSemanticAnswerValidation")) {
-						cfg.aiSemanticAnswerValidation = true;
-						changed = true;
-					}
-					if (!obj.has("aiRequestTimeoutSeconds")) {
-						cfg.aiRequestTimeoutSeconds = 8;
-						changed = true;
-					}
-					if (!obj.has("aiHintCooldownSeconds")) {
-						cfg.aiHintCooldownSeconds = 20;
-						changed = true;
-					}
-					if (!obj.has("aiHintsGlobalRequireAllPlayers")) {
-						cfg.aiHintsGlobalRequireAllPlayers = true;
-						changed = true;
-					}
-					if (!obj.has("fuzzyAnswerMatching")) {
-						cfg.fuzzyAnswerMatching = true;
-						changed = true;
-					}
-					if (!obj.has("fuzzyMaxEditDistance")) {
-						cfg.fuzzyMaxEditDistance = 3;
-						changed = true;
-					}
-				}
-			} catch (Exception ignored) {
-				// If the JSON isn't parseable here, the outer try/catch will handle it.
+			JsonElement root;
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				root = JsonParser.parseReader(reader);
+			}
+			if (root == null || !root.isJsonObject()) {
+				return new TriviaConfig();
 			}
 
-			if (changed) {
-				Files.writeString(file, GSON.toJson(cfg), StandardCharsets.UTF_8);
+			JsonObject obj = root.getAsJsonObject();
+			boolean migrated = TriviaConfigMigrations.migrate(obj, GSON);
+			TriviaConfig loaded = GSON.fromJson(obj, TriviaConfig.class);
+			TriviaConfig cfg = loaded != null ? loaded : new TriviaConfig();
+
+			// Only rewrite the file when the schema version actually moved.
+			if (migrated) {
+				writeAtomic(file, GSON.toJson(obj));
 			}
 
 			return cfg;
@@ -135,10 +82,43 @@ public final class TriviaConfigManager {
 	}
 
 	public static void saveConfig(TriviaConfig cfg) throws IOException {
-		Path file = getSettingsPath();
-		Files.createDirectories(file.getParent());
-		Files.writeString(file, GSON.toJson(cfg), StandardCharsets.UTF_8);
+		WRITER.writeNow(getSettingsPath(), cfg);
+		config = cfg;
+	}
+
+	/**
+	 * Makes {@code cfg} the live config immediately and persists it in the background.
+	 * Rapid successive saves are coalesced into one write. The returned future completes when
+	 * the write that includes this snapshot finishes (or fails).
+	 */
+	public static CompletableFuture<Void> saveConfigAsync(TriviaConfig cfg) {
 		config = cfg;
+		return WRITER.submit(getSettingsPath(), cfg.copy());
+	}
+
+	/**
+	 * True if settings.json's mtime matches the last write made by this mod.
+	 */
+	public static boolean isOwnWrite(long mtimeMillis) {
+		return WRITER.isOwnWrite(mtimeMillis);
+	}
+
+	/**
+	 * Writes via a sibling temp file and a move, so readers (and the auto-reloader) never see a
+	 * half-written file.
+	 */
+	public static void writeAtomic(Path target, String content) throws IOException {
+		writeAtomic(target, content.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static void writeAtomic(Path target, byte[] content) throws IOException {
+		Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+		Files.write(tmp, content);
+		try {
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING);
+		}
 	}
 
 	private static void writeDefaultResource(String resourcePath, Path target) throws IOException {
@@ -0,0 +1,83 @@
+package mod.trivia.config;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import mod.trivia.TriviaMod;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Ordered config schema migrations, applied to a single parsed JSON tree.
+ *
+ * Adding a setting only needs a {@link #CURRENT_VERSION} bump: Gson keeps the field initializer when
+ * the key is missing, and the final backfill writes missing keys out whenever the stored version is
+ * older. Add a step only when existing values must be rewritten (a rename, a changed unit or default).
+ */
+final class TriviaConfigMigrations {
+	static final String VERSION_KEY = "configVersion";
+
+	/**
+	 * Schema history (all plain field additions, handled by the backfill):
+	 * 1 configVersion, 2 schedulerClock, 3 activity-aware pacing, 4 chatLogSampleRate, 5 guess rate limit,
+	 * 6 battle broadcast batching, 7 trivia channels, 8 speed round mode, 9 team play, 10 leaderboard
+	 * objective, 11 round journal, 12 weighted question selection, 13 adaptive difficulty,
+	 * 14 seen-question tracking.
+	 */
+	static final int CURRENT_VERSION = 14;
+
+	private record Step(int toVersion, String description, Consumer<JsonObject> apply) {
+	}
+
+	// Value-rewriting steps, in version order; none so far.
+	private static final List<Step> STEPS = List.of();
+
+	private TriviaConfigMigrations() {
+	}
+
+	/**
+	 * Migrates {@code obj} in place.
+	 *
+	 * @return true if the tree changed and should be written back
+	 */
+	static boolean migrate(JsonObject obj, Gson gson) {
+		int version = readVersion(obj);
+		if (version >= CURRENT_VERSION) {
+			return false;
+		}
+		for (Step step : STEPS) {
+			if (step.toVersion() <= version) {
+				continue;
+			}
+			step.apply().accept(obj);
+			TriviaMod.LOGGER.info("Trivia config migrated to v{} ({})", step.toVersion(), step.description());
+		}
+		backfillDefaults(obj, gson);
+		TriviaMod.LOGGER.info("Trivia config migrated from v{} to v{}", version, CURRENT_VERSION);
+		obj.addProperty(VERSION_KEY, CURRENT_VERSION);
+		return true;
+	}
+
+	private static int readVersion(JsonObject obj) {
+		JsonElement v = obj.get(VERSION_KEY);
+		if (v == null || !v.isJsonPrimitive()) {
+			return 0;
+		}
+		try {
+			return v.getAsInt();
+		} catch (Exception e) {
+			return 0;
+		}
+	}
+
+	private static void backfillDefaults(JsonObject obj, Gson gson) {
+		JsonObject defaults = gson.toJsonTree(new TriviaConfig()).getAsJsonObject();
+		for (Map.Entry<String, JsonElement> e : defaults.entrySet()) {
+			if (!obj.has(e.getKey())) {
+				obj.add(e.getKey(), e.getValue());
+			}
+		}
+	}
+}
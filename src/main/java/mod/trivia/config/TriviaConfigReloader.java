@@ -0,0 +1,114 @@
+package mod.trivia.config;
+
+import mod.trivia.TriviaMod;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Applies a reloaded config to the subsystems that depend on it.
+ *
+ * Each subsystem declares the config fields it reads; on reload only subsystems whose fields
+ * actually changed are invalidated. This keeps cheap toggles (e.g. announceCorrectGuesses) from
+ * re-walking the item/effect registries on the server thread.
+ */
+public final class TriviaConfigReloader {
+	private static final List<Field> FIELDS = collectFields();
+
+	private record Subsystem(String name, Set<String> fields, Consumer<TriviaConfig> onChange) {
+	}
+
+	private final List<Subsystem> subsystems = new ArrayList<>();
+
+	/**
+	 * Registers a subsystem. An empty field set means the subsystem never depends on config changes
+	 * (it is still rebuilt by {@link #applyAll}).
+	 */
+	public void register(String name, Set<String> fields, Consumer<TriviaConfig> onChange) {
+		for (String f : fields) {
+			if (FIELDS.stream().noneMatch(field -> field.getName().equals(f))) {
+				throw new IllegalArgumentException("Unknown TriviaConfig field for " + name + ": " + f);
+			}
+		}
+		subsystems.add(new Subsystem(name, Set.copyOf(fields), onChange));
+	}
+
+	/**
+	 * Rebuilds every subsystem regardless of what changed (startup, /trivia reload).
+	 */
+	public void applyAll(TriviaConfig cfg) {
+		for (Subsystem s : subsystems) {
+			run(s, cfg);
+		}
+	}
+
+	/**
+	 * Rebuilds only the subsystems whose declared fields differ between the two configs.
+	 *
+	 * @return the changed field names
+	 */
+	public Set<String> apply(TriviaConfig previous, TriviaConfig next) {
+		Set<String> changed = diff(previous, next);
+		if (changed.isEmpty()) {
+			return changed;
+		}
+		for (Subsystem s : subsystems) {
+			for (String f : s.fields()) {
+				if (changed.contains(f)) {
+					run(s, next);
+					break;
+				}
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * Field-level diff of two configs. A null side counts as "everything changed".
+	 */
+	public static Set<String> diff(TriviaConfig a, TriviaConfig b) {
+		Set<String> changed = new LinkedHashSet<>();
+		for (Field f : FIELDS) {
+			try {
+				Object va = a == null ? null : f.get(a);
+				Object vb = b == null ? null : f.get(b);
+				if (a == null || b == null || !Objects.equals(va, vb)) {
+					changed.add(f.getName());
+				}
+			} catch (IllegalAccessException e) {
+				changed.add(f.getName());
+			}
+		}
+		return changed;
+	}
+
+	private static void run(Subsystem s, TriviaConfig cfg) {
+		long start = System.nanoTime();
+		try {
+			s.onChange().accept(cfg);
+		} catch (Exception e) {
+			TriviaMod.LOGGER.warn("Trivia config reload of {} failed: {}", s.name(), e.getMessage());
+			return;
+		}
+		long micros = (System.nanoTime() - start) / 1000L;
+		TriviaMod.LOGGER.info("Trivia config reload: {} rebuilt in {} us", s.name(), micros);
+	}
+
+	private static List<Field> collectFields() {
+		List<Field> out = new ArrayList<>();
+		for (Field f : TriviaConfig.class.getFields()) {
+			int mod = f.getModifiers();
+			if (Modifier.isStatic(mod) || Modifier.isTransient(mod)) {
+				continue;
+			}
+			out.add(f);
+		}
+		return List.copyOf(out);
+	}
+}
@@ -0,0 +1,115 @@
+package mod.trivia.config;
+
+import com.google.gson.Gson;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Background settings.json writer.
+ *
+ * Saves submitted within {@link #COALESCE_MILLIS} of each other collapse into a single atomic
+ * write of the newest snapshot. The mtime of every background write is remembered so the
+ * auto-reloader can ignore the mod's own writes.
+ */
+final class TriviaConfigWriter {
+	private static final long COALESCE_MILLIS = 250;
+
+	private final Gson gson;
+	private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(r -> {
+		Thread t = new Thread(r, "trivia-config-writer");
+		t.setDaemon(true);
+		return t;
+	});
+
+	private final Object lock = new Object();
+	private Path pendingFile;
+	private TriviaConfig pending;
+	private CompletableFuture<Void> pendingFuture;
+
+	private volatile long lastWrittenMillis = -1;
+
+	TriviaConfigWriter(Gson gson) {
+		this.gson = gson;
+	}
+
+	/**
+	 * Queues {@code snapshot} for writing. The snapshot must not be mutated afterwards.
+	 */
+	CompletableFuture<Void> submit(Path file, TriviaConfig snapshot) {
+		synchronized (lock) {
+			pendingFile = file;
+			pending = snapshot;
+			if (pendingFuture == null) {
+				pendingFuture = new CompletableFuture<>();
+				executor.schedule(this::flush, COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+			}
+			return pendingFuture;
+		}
+	}
+
+	/**
+	 * Writes synchronously on the caller's thread. Not recorded as our own write, so the
+	 * auto-reloader still applies it on the server thread (used by the client config screen).
+	 */
+	void writeNow(Path file, TriviaConfig cfg) throws IOException {
+		synchronized (this) {
+			Files.createDirectories(file.getParent());
+			TriviaConfigManager.writeAtomic(file, gson.toJson(cfg));
+		}
+	}
+
+	/**
+	 * Flushes any pending write immediately and waits for it, e.g. before re-reading from disk.
+	 */
+	void awaitIdle() {
+		try {
+			executor.submit(this::flush).get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (ExecutionException ignored) {
+			// flush() reports failures through the pending future.
+		}
+	}
+
+	boolean isOwnWrite(long mtimeMillis) {
+		return mtimeMillis == lastWrittenMillis;
+	}
+
+	private void flush() {
+		Path file;
+		TriviaConfig cfg;
+		CompletableFuture<Void> future;
+		synchronized (lock) {
+			file = pendingFile;
+			cfg = pending;
+			future = pendingFuture;
+			pendingFile = null;
+			pending = null;
+			pendingFuture = null;
+		}
+		if (future == null) {
+			return;
+		}
+		try {
+			synchronized (this) {
+				write(file, cfg);
+			}
+			future.complete(null);
+		} catch (Exception e) {
+			future.completeExceptionally(e);
+		}
+	}
+
+	private void write(Path file, TriviaConfig cfg) throws IOException {
+		Files.createDirectories(file.getParent());
+		TriviaConfigManager.writeAtomic(file, gson.toJson(cfg));
+		lastWrittenMillis = Files.getLastModifiedTime(file).toMillis();
+	}
+}
@@ -0,0 +1,166 @@
+package mod.trivia.game;
+
+import mod.trivia.config.TriviaConfig;
+import mod.trivia.questions.TriviaQuestion;
+import mod.trivia.questions.TriviaQuestionStats;
+import mod.trivia.questions.TriviaQuestionsManager;
+
+import java.util.List;
+
+/**
+ * Steers question selection toward adaptiveTargetSolveRate for the current audience.
+ *
+ * Per-question plays, solves and a running mean solve time live in primitive arrays indexed by bank
+ * position, seeded from question_stats.bin and updated at each round end without allocating. The
+ * audience's recent solve rate is an exponential moving average over rounds; when it drifts from the
+ * target, the sampler is re-weighted toward questions with higher (or lower) solve rates. The drift
+ * is quantized so the alias table is only rebuilt when the steering actually moves.
+ */
+final class TriviaAdaptiveDifficulty {
+	// Pseudo-plays at the bank-wide mean, so a question needs some history before it stands out.
+	private static final int PRIOR_PLAYS = 5;
+	private static final double RECENT_ALPHA = 0.1;
+	private static final double STEER_STEP = 0.05;
+	private static final double GAIN = 6.0;
+	private static final double MIN_BIAS = 0.1;
+	private static final double MAX_BIAS = 10.0;
+	private static final int MIN_TIMED_SOLVES = 3;
+
+	private int bankVersion = -1;
+	private int[] plays = new int[0];
+	private int[] solves = new int[0];
+	private int[] timedSolves = new int[0];
+	private float[] meanSolveMillis = new float[0];
+	private long totalPlays;
+	private long totalSolves;
+
+	private double recentSolveRate = Double.NaN;
+	private int appliedStep;
+	private boolean biasApplied;
+
+	/**
+	 * Called before each pick: re-seeds after a bank reload and refreshes the sampler bias when the
+	 * steering moved by a step. Cheap when nothing changed.
+	 */
+	void beforePick(TriviaQuestionsManager manager, TriviaConfig cfg) {
+		if (!cfg.adaptiveDifficulty) {
+			if (biasApplied) {
+				manager.setSelectionBias(null);
+				biasApplied = false;
+			}
+			return;
+		}
+		if (manager.getVersion() != bankVersion) {
+			seed(manager);
+			biasApplied = false;
+		}
+		double target = clampRate(cfg.adaptiveTargetSolveRate);
+		double recent = Double.isNaN(recentSolveRate) ? target : recentSolveRate;
+		int step = (int) Math.round((target - recent) / STEER_STEP);
+		if (biasApplied && step == appliedStep) {
+			return;
+		}
+		appliedStep = step;
+		biasApplied = true;
+		double steer = step * STEER_STEP;
+		double mean = meanSolveRate(target);
+		manager.setSelectionBias(step == 0 ? null : i -> bias(i, steer, mean));
+	}
+
+	/**
+	 * Records a finished round for the question at {@code index} (ignored if the bank changed since).
+	 *
+	 * @param solveMillisSum sum of solve times over the {@code timed} solves that have one
+	 */
+	void recordRound(int index, int version, int participants, int solved, long solveMillisSum, int timed) {
+		if (participants > 0) {
+			double rate = Math.min(1.0, (double) solved / participants);
+			recentSolveRate = Double.isNaN(recentSolveRate) ? rate : recentSolveRate + RECENT_ALPHA * (rate - recentSolveRate);
+		}
+		if (version != bankVersion || index < 0 || index >= plays.length) {
+			return;
+		}
+		plays[index] += participants;
+		solves[index] += solved;
+		totalPlays += participants;
+		totalSolves += solved;
+		if (timed > 0) {
+			int n = timedSolves[index] + timed;
+			meanSolveMillis[index] += (float) ((solveMillisSum - (double) meanSolveMillis[index] * timed) / n);
+			timedSolves[index] = n;
+		}
+	}
+
+	/**
+	 * Round length for the question at {@code index}: its mean solve time times adaptiveDurationFactor,
+	 * kept within half to twice {@code baseSeconds}. Falls back to {@code baseSeconds} without history.
+	 */
+	int durationSeconds(int index, int version, int baseSeconds, TriviaConfig cfg) {
+		if (!cfg.adaptiveDifficulty || cfg.adaptiveDurationFactor <= 0 || version != bankVersion
+			|| index < 0 || index >= plays.length || timedSolves[index] < MIN_TIMED_SOLVES) {
+			return baseSeconds;
+		}
+		int scaled = (int) Math.ceil(meanSolveMillis[index] * cfg.adaptiveDurationFactor / 1000.0);
+		int min = Math.max(5, baseSeconds / 2);
+		int max = Math.max(min, baseSeconds * 2);
+		return Math.max(min, Math.min(max, scaled));
+	}
+
+	/**
+	 * For /trivia status.
+	 */
+	String describe(TriviaConfig cfg) {
+		if (!cfg.adaptiveDifficulty) {
+			return "OFF";
+		}
+		String recent = Double.isNaN(recentSolveRate) ? "-" : Math.round(recentSolveRate * 100) + "%";
+		return "recent " + recent + " -> target " + Math.round(clampRate(cfg.adaptiveTargetSolveRate) * 100) + "%";
+	}
+
+	private void seed(TriviaQuestionsManager manager) {
+		List<TriviaQuestion> qs = manager.getQuestions();
+		int n = qs.size();
+		plays = new int[n];
+		solves = new int[n];
+		timedSolves = new int[n];
+		meanSolveMillis = new float[n];
+		totalPlays = 0;
+		totalSolves = 0;
+		for (int i = 0; i < n; i++) {
+			TriviaQuestionStats s = manager.getStats(qs.get(i));
+			if (s == null) {
+				continue;
+			}
+			plays[i] = s.participants();
+			solves[i] = s.solved();
+			totalPlays += s.participants();
+			totalSolves += s.solved();
+			if (s.medianSolveMillis() >= 0) {
+				timedSolves[i] = s.solved();
+				meanSolveMillis[i] = s.medianSolveMillis();
+			}
+		}
+		bankVersion = manager.getVersion();
+	}
+
+	private double meanSolveRate(double fallback) {
+		return totalPlays <= 0 ? fallback : (double) totalSolves / totalPlays;
+	}
+
+	/**
+	 * exp(GAIN * steer * (p - mean)): with the audience below target (steer > 0) questions solved more
+	 * often than average gain weight, and vice versa.
+	 */
+	private double bias(int i, double steer, double mean) {
+		if (i >= plays.length) {
+			return 1.0;
+		}
+		double p = (solves[i] + PRIOR_PLAYS * mean) / (plays[i] + PRIOR_PLAYS);
+		double b = Math.exp(GAIN * steer * (p - mean));
+		return Math.max(MIN_BIAS, Math.min(MAX_BIAS, b));
+	}
+
+	private static double clampRate(double rate) {
+		return Double.isFinite(rate) ? Math.max(0.05, Math.min(0.95, rate)) : 0.5;
+	}
+}
@@ -0,0 +1,192 @@
+package mod.trivia.game;
+
+import mod.trivia.TriviaMod;
+import mod.trivia.config.TriviaConfigManager;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+/**
+ * Per-player trivia chat preferences and filtered broadcast fan-out.
+ *
+ * Only players that opted out are stored (one byte each), persisted to player_prefs.bin. When
+ * nobody opted out, broadcasts take the vanilla fast path.
+ */
+public final class TriviaAudience {
+	private static final int FILE_VERSION = 1;
+
+	public enum Level {
+		/**
+		 * Everything (default).
+		 */
+		ALL,
+		/**
+		 * Questions, hints and results only; no instruction lines, battle or announce chatter.
+		 */
+		QUIET,
+		/**
+		 * No trivia broadcasts at all.
+		 */
+		MUTED
+	}
+
+	public enum Category {
+		ESSENTIAL,
+		CHATTER
+	}
+
+	private final Map<UUID, Level> levels = new HashMap<>();
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "trivia-player-prefs");
+		t.setDaemon(true);
+		return t;
+	});
+
+	public Path getPath() {
+		return TriviaConfigManager.getConfigDir().resolve("player_prefs.bin");
+	}
+
+	public Level get(UUID player) {
+		return levels.getOrDefault(player, Level.ALL);
+	}
+
+	public void set(UUID player, Level level) {
+		if (level == null || level == Level.ALL) {
+			if (levels.remove(player) == null) {
+				return;
+			}
+		} else if (levels.put(player, level) == level) {
+			return;
+		}
+		saveAsync();
+	}
+
+	/**
+	 * Sends {@code text} to every online player whose preference accepts {@code category}.
+	 * The same Text instance is reused for every recipient.
+	 */
+	public void broadcast(MinecraftServer server, Text text, Category category) {
+		broadcast(server, text, category, null);
+	}
+
+	/**
+	 * As {@link #broadcast(MinecraftServer, Text, Category)}, limited to players matching {@code recipients}
+	 * (null for everyone).
+	 */
+	public void broadcast(MinecraftServer server, Text text, Category category, Predicate<ServerPlayerEntity> recipients) {
+		if (server == null) {
+			return;
+		}
+		if (levels.isEmpty() && recipients == null) {
+			server.getPlayerManager().broadcast(text, false);
+			return;
+		}
+		server.sendMessage(text);
+		for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
+			if (recipients != null && !recipients.test(p)) {
+				continue;
+			}
+			if (accepts(get(p.getUuid()), category)) {
+				p.sendMessage(text, false);
+			}
+		}
+	}
+
+	public static boolean accepts(Level level, Category category) {
+		return switch (level) {
+			case ALL -> true;
+			case QUIET -> category == Category.ESSENTIAL;
+			case MUTED -> false;
+		};
+	}
+
+	public void load() {
+		// A queued save must land first, or re-reading the file would undo it.
+		flush();
+		levels.clear();
+		Path file = getPath();
+		if (Files.notExists(file)) {
+			return;
+		}
+		try (InputStream raw = Files.newInputStream(file); DataInputStream in = new DataInputStream(raw)) {
+			int version = in.readInt();
+			if (version != FILE_VERSION) {
+				TriviaMod.LOGGER.warn("Trivia: unknown player_prefs.bin version {}; ignoring", version);
+				return;
+			}
+			int count = in.readInt();
+			Level[] values = Level.values();
+			for (int i = 0; i < count; i++) {
+				UUID id = new UUID(in.readLong(), in.readLong());
+				int ordinal = in.readByte();
+				if (ordinal > 0 && ordinal < values.length) {
+					levels.put(id, values[ordinal]);
+				}
+			}
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to read player_prefs.bin: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Waits (bounded) for queued writes, e.g. on server shutdown.
+	 */
+	public void flush() {
+		try {
+			writer.submit(() -> {
+			}).get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			TriviaMod.LOGGER.warn("Trivia: player prefs flush did not finish: {}", e.getMessage());
+		}
+	}
+
+	private void saveAsync() {
+		byte[] bytes;
+		try {
+			bytes = encode();
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to encode player prefs: {}", e.getMessage());
+			return;
+		}
+		Path file = getPath();
+		writer.execute(() -> {
+			try {
+				Files.createDirectories(file.getParent());
+				TriviaConfigManager.writeAtomic(file, bytes);
+			} catch (IOException e) {
+				TriviaMod.LOGGER.warn("Trivia: failed to save player prefs: {}", e.getMessage());
+			}
+		});
+	}
+
+	private byte[] encode() throws IOException {
+		ByteArrayOutputStream buf = new ByteArrayOutputStream(8 + levels.size() * 17);
+		try (DataOutputStream out = new DataOutputStream(buf)) {
+			out.writeInt(FILE_VERSION);
+			out.writeInt(levels.size());
+			for (Map.Entry<UUID, Level> e : levels.entrySet()) {
+				out.writeLong(e.getKey().getMostSignificantBits());
+				out.writeLong(e.getKey().getLeastSignificantBits());
+				out.writeByte(e.getValue().ordinal());
+			}
+		}
+		return buf.toByteArray();
+	}
+}
@@ -0,0 +1,92 @@
+package mod.trivia.game;
+
+import mod.trivia.message.TriviaMessage;
+import mod.trivia.message.TriviaMessages;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.text.Text;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects battle-mode wrong guesses (and global hint progress) over a short window and emits them
+ * as one summary line, instead of one broadcast per event to every player.
+ */
+final class TriviaBroadcastAggregator {
+	private record WrongGuess(String playerName, String guess) {
+	}
+
+	private final List<WrongGuess> wrongGuesses = new ArrayList<>();
+	private String progressLine;
+
+	boolean isEmpty() {
+		return wrongGuesses.isEmpty() && progressLine == null;
+	}
+
+	/**
+	 * @param playerName null to hide the guesser
+	 */
+	void addWrongGuess(String playerName, String guess) {
+		wrongGuesses.add(new WrongGuess(playerName, guess));
+	}
+
+	/**
+	 * Only the latest progress line per window is broadcast.
+	 */
+	void setProgress(String line) {
+		progressLine = line;
+	}
+
+	void clear() {
+		wrongGuesses.clear();
+		progressLine = null;
+	}
+
+	void flush(MinecraftServer server, TriviaChannel channel, TriviaMessages messages, String suffix, int maxLength) {
+		if (server == null || isEmpty()) {
+			clear();
+			return;
+		}
+		if (!wrongGuesses.isEmpty()) {
+			channel.broadcast(server, Text.literal(summarize(messages, suffix, maxLength)), TriviaAudience.Category.CHATTER);
+		}
+		if (progressLine != null) {
+			channel.broadcast(server, Text.literal(progressLine), TriviaAudience.Category.CHATTER);
+		}
+		clear();
+	}
+
+	private String summarize(TriviaMessages messages, String suffix, int maxLength) {
+		if (wrongGuesses.size() == 1) {
+			WrongGuess g = wrongGuesses.get(0);
+			String base = g.playerName() != null
+				? messages.format(TriviaMessage.WRONG_BROADCAST, g.playerName(), g.guess())
+				: messages.format(TriviaMessage.WRONG_BROADCAST_ANONYMOUS, g.guess());
+			return base + suffix;
+		}
+
+		int limit = Math.max(64, maxLength) - suffix.length();
+		StringBuilder sb = new StringBuilder(Math.min(limit, 256));
+		sb.append(messages.format(TriviaMessage.WRONG_SUMMARY, wrongGuesses.size()));
+		int shown = 0;
+		for (WrongGuess g : wrongGuesses) {
+			String entry = g.playerName() != null ? (g.playerName() + ": " + g.guess()) : g.guess();
+			int sep = shown == 0 ? 0 : 2;
+			// Reserve room for the "(+N more)" tail.
+			if (shown > 0 && sb.length() + sep + entry.length() + 12 > limit) {
+				break;
+			}
+			if (sep > 0) {
+				sb.append(", ");
+			}
+			sb.append(entry);
+			shown++;
+		}
+		int omitted = wrongGuesses.size() - shown;
+		if (omitted > 0) {
+			sb.append(" (+").append(omitted).append(" more)");
+		}
+		sb.append('.');
+		return sb.append(suffix).toString();
+	}
+}
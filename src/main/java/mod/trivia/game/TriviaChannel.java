@@ -0,0 +1,1176 @@
+package mod.trivia.game;
+
+import mod.trivia.TriviaMod;
+import mod.trivia.ai.TriviaAiService;
+import mod.trivia.config.TriviaConfig;
+import mod.trivia.config.TriviaConfigManager;
+import mod.trivia.journal.TriviaJournal;
+import mod.trivia.journal.TriviaJournalEntry;
+import mod.trivia.message.TriviaMessage;
+import mod.trivia.message.TriviaMessages;
+import mod.trivia.punish.TriviaPunisher;
+import mod.trivia.questions.TriviaQuestion;
+import mod.trivia.questions.TriviaQuestionSampler;
+import mod.trivia.questions.TriviaQuestionsManager;
+import mod.trivia.reward.TriviaRewarder;
+import mod.trivia.stats.TriviaStatsEvent;
+import mod.trivia.util.AnswerMatcher;
+import net.minecraft.scoreboard.Team;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.network.ServerPlayerEntity;
+import net.minecraft.text.Text;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.IntPredicate;
+
+/**
+ * One independent trivia loop (phase, round state, question history and battle broadcasts) for the
+ * players that {@link TriviaGame} routes to it.
+ *
+ * Channels share the question bank, rewarder, AI service and the game's single scheduler, so an idle
+ * channel costs nothing per tick.
+ */
+public final class TriviaChannel {
+	private static final int QUESTION_NO_REPEAT_WINDOW = 20;
+	private static final int SPEED_GAP_SECONDS = 2;
+	private static final int SPEED_TOP_SCORES = 5;
+
+	private enum Phase {
+		COOLDOWN,
+		ACTIVE
+	}
+
+	private final String key;
+	private final TriviaGame game;
+	private final TriviaQuestionsManager questionsManager;
+	private final TriviaRewarder rewarder;
+	private final TriviaPunisher punisher;
+	private final TriviaAiService ai;
+	private final TriviaScheduler scheduler;
+	private final TriviaMessages messages;
+	private final TriviaAudience audience;
+	private final TriviaJournal journal;
+	// Reseeded at every round start (the seed is journaled) so a round's picks can be replayed.
+	private final Random rng = new Random();
+
+	private final ArrayDeque<String> recentQuestionKeys = new ArrayDeque<>();
+	private final HashSet<String> recentQuestionKeySet = new HashSet<>();
+	// Set by /trivia ask <id> for the duration of one startRound.
+	private int forcedQuestionIndex = -1;
+	private final TriviaBroadcastAggregator battleBroadcasts = new TriviaBroadcastAggregator();
+	private TriviaScheduler.Timer battleFlushTimer;
+
+	private Phase phase = Phase.COOLDOWN;
+	private TriviaScheduler.Timer phaseTimer;
+
+	// Activity tracking: scheduling is suspended while nobody in the channel is online.
+	private int onlinePlayers;
+	private boolean suspended;
+	private long suspendedCooldownNanos;
+	private final TriviaRoundState round = new TriviaRoundState();
+	private long roundId = 0;
+
+	// Speed mode: burstSize questions back to back; burstIndex is the current one (1-based, 0 = no burst).
+	private final TriviaSpeedStats speedStats = new TriviaSpeedStats();
+	private int burstSize;
+	private int burstIndex;
+
+	TriviaChannel(String key, TriviaGame game) {
+		this.key = key;
+		this.game = game;
+		this.questionsManager = game.questionsManager;
+		this.rewarder = game.rewarder;
+		this.punisher = game.punisher;
+		this.ai = game.ai;
+		this.scheduler = game.scheduler;
+		this.messages = game.messages;
+		this.audience = game.audience;
+		this.journal = game.journal;
+	}
+
+	public String getKey() {
+		return key;
+	}
+
+	public int getOnlinePlayers() {
+		return onlinePlayers;
+	}
+
+	public boolean isRoundActive() {
+		return phase == Phase.ACTIVE && round.activeQuestion != null;
+	}
+
+	/**
+	 * Raw answer and aliases of the open round, or empty when none.
+	 */
+	List<String> getActiveAnswers() {
+		TriviaQuestion q = round.activeQuestion;
+		if (!isRoundActive() || q == null) {
+			return List.of();
+		}
+		return q.answers();
+	}
+
+	long getRoundId() {
+		return roundId;
+	}
+
+	/**
+	 * True while the round a queued guess was made in is still open.
+	 */
+	boolean acceptsGuessFor(long guessRoundId) {
+		return isRoundActive() && roundId == guessRoundId;
+	}
+
+	public String getActiveAnswerForAdmin() {
+		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
+			return null;
+		}
+		String a = round.activeQuestion.answer;
+		if (a == null) {
+			return null;
+		}
+		return a.stripTrailing();
+	}
+
+	/**
+	 * Sends {@code text} to this channel's players only (and the server log).
+	 */
+	void broadcast(MinecraftServer server, Text text, TriviaAudience.Category category) {
+		if (game.isSingleChannel()) {
+			audience.broadcast(server, text, category);
+			return;
+		}
+		audience.broadcast(server, text, category, p -> game.channelOf(p) == this);
+	}
+
+	void onServerStarted() {
+		onlinePlayers = 0;
+	}
+
+	void onPlayerJoin(ServerPlayerEntity player) {
+		onlinePlayers++;
+		round.players.retain(player.getUuid());
+		TriviaPlayerState ps = round.players.get(player.getUuid());
+		if (ps != null && (ps.solved || ps.failed)) {
+			round.finishedOnline++;
+		}
+		trackHintEligibility(ps, false, isEligibleForGlobalHint(ps));
+		if (suspended) {
+			suspended = false;
+			phaseTimer = scheduler.schedule(suspendedCooldownNanos, this::onPhaseDeadline);
+			TriviaMod.LOGGER.info("Trivia [{}] resumed: player online", key);
+		}
+	}
+
+	void onPlayerLeave(MinecraftServer server, ServerPlayerEntity player) {
+		onlinePlayers = Math.max(0, onlinePlayers - 1);
+		TriviaPlayerState ps = round.players.get(player.getUuid());
+		if (ps != null && (ps.solved || ps.failed)) {
+			round.finishedOnline = Math.max(0, round.finishedOnline - 1);
+		}
+		trackHintEligibility(ps, isEligibleForGlobalHint(ps), false);
+		round.players.release(player.getUuid());
+		if (onlinePlayers == 0) {
+			suspend();
+			return;
+		}
+		maybeEndRoundEarly(server);
+	}
+
+	/**
+	 * Stops all round scheduling until the next player joins. An active round is dropped silently.
+	 */
+	private void suspend() {
+		if (suspended) {
+			return;
+		}
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		long cooldownNanos = Math.max(1, cfg.cooldownSeconds) * TriviaScheduler.NANOS_PER_SECOND;
+		long remaining = (phase == Phase.COOLDOWN && phaseTimer != null) ? scheduler.remainingNanos(phaseTimer) : cooldownNanos;
+		journalDroppedRound();
+		scheduler.cancel(phaseTimer);
+		phaseTimer = null;
+		phase = Phase.COOLDOWN;
+		round.reset();
+		endBurst();
+		discardBattleBroadcasts();
+		suspended = true;
+		suspendedCooldownNanos = Math.max(TriviaScheduler.NANOS_PER_SECOND, remaining);
+		TriviaMod.LOGGER.info("Trivia [{}] suspended: no players online", key);
+	}
+
+	private void maybeEndRoundEarly(MinecraftServer server) {
+		if (server == null || phase != Phase.ACTIVE || round.activeQuestion == null) {
+			return;
+		}
+		if (!TriviaConfigManager.getConfig().endRoundWhenAllAnswered) {
+			return;
+		}
+		if (onlinePlayers > 0 && round.finishedOnline >= onlinePlayers) {
+			endRound(server, true);
+		}
+	}
+
+	/**
+	 * @param arrivalNanos System.nanoTime() when the solving guess arrived, so solve times exclude
+	 * tick batching and AI validation
+	 */
+	private void markSolved(ServerPlayerEntity player, TriviaPlayerState ps, long arrivalNanos) {
+		if (ps.solved || ps.failed) {
+			return;
+		}
+		boolean wasEligible = isEligibleForGlobalHint(ps);
+		ps.solved = true;
+		ps.solveMillis = Math.max(0, arrivalNanos - round.startedNanos) / 1_000_000L;
+		if (!player.isDisconnected()) {
+			round.finishedOnline++;
+			trackHintEligibility(ps, wasEligible, false);
+		}
+	}
+
+	private void markFailed(ServerPlayerEntity player, TriviaPlayerState ps) {
+		if (ps.solved || ps.failed) {
+			return;
+		}
+		boolean wasEligible = isEligibleForGlobalHint(ps);
+		ps.failed = true;
+		if (!player.isDisconnected()) {
+			round.finishedOnline++;
+			trackHintEligibility(ps, wasEligible, false);
+		}
+	}
+
+	private void markGuessed(TriviaPlayerState ps) {
+		if (!ps.guessedOnce) {
+			ps.guessedOnce = true;
+			round.participants++;
+		}
+	}
+
+	private void onPhaseDeadline(MinecraftServer server) {
+		phaseTimer = null;
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		if (!cfg.enabled) {
+			// Re-enabling resets to a fresh cooldown (see the "round" reload subsystem).
+			return;
+		}
+		if (onlinePlayers <= 0) {
+			suspend();
+			return;
+		}
+
+		if (phase == Phase.COOLDOWN) {
+			startRound(server);
+			return;
+		}
+
+		if (phase == Phase.ACTIVE) {
+			endRound(server, false);
+		}
+	}
+
+	private void schedulePhase(long seconds) {
+		scheduler.cancel(phaseTimer);
+		phaseTimer = scheduler.scheduleSeconds(Math.max(1, seconds), this::onPhaseDeadline);
+	}
+
+
+	/**
+	 * Forces a new random question to start immediately if (and only if) no question is active.
+	 * This skips any remaining cooldown. When the forced round ends, the cooldown restarts normally.
+	 */
+	boolean forceStartRandomQuestionIfIdle(MinecraftServer server) {
+		return forceStartQuestionIfIdle(server, -1);
+	}
+
+	/**
+	 * @param index bank index of the question to ask, or -1 for a normal pick
+	 */
+	boolean forceStartQuestionIfIdle(MinecraftServer server, int index) {
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		if (!cfg.enabled) {
+			return false;
+		}
+		if (phase == Phase.ACTIVE && round.activeQuestion != null) {
+			return false;
+		}
+
+		// Skip remaining cooldown and start immediately.
+		phase = Phase.COOLDOWN;
+		scheduler.cancel(phaseTimer);
+		phaseTimer = null;
+		forcedQuestionIndex = index;
+		try {
+			startRound(server);
+		} finally {
+			forcedQuestionIndex = -1;
+		}
+		return phase == Phase.ACTIVE && round.activeQuestion != null;
+	}
+
+
+	/**
+	 * @param arrivalNanos System.nanoTime() when the guess arrived (speed scoring)
+	 */
+	void applyAttempt(ServerPlayerEntity player, String rawMessage, boolean correctLocal, long arrivalNanos, TriviaConfig cfg) {
+		String prefix = cfg.answerPrefix == null ? "." : cfg.answerPrefix;
+		String guessDisplay = rawMessage.substring(prefix.length()).stripTrailing();
+		String guessRaw = rawMessage.substring(prefix.length());
+		String guess = normalizeAnswer(guessRaw);
+		if (guess.isEmpty()) {
+			player.sendMessage(messages.text(TriviaMessage.EMPTY_ANSWER), false);
+			return;
+		}
+
+		// Chat shortcut: .hint generates an AI hint (if enabled).
+		if ("hint".equals(guess) || "h".equals(guess)) {
+			handleHintRequest(player, cfg);
+			return;
+		}
+
+		TriviaTeamState team = teamOf(player, cfg);
+		if (team != null && team.solved) {
+			player.sendMessage(messages.text(TriviaMessage.TEAM_ALREADY_SOLVED), false);
+			return;
+		}
+		if (team != null && team.failed) {
+			player.sendMessage(messages.text(TriviaMessage.TEAM_ALREADY_FAILED), false);
+			return;
+		}
+
+		UUID uuid = player.getUuid();
+		TriviaPlayerState ps = round.players.getOrCreate(uuid);
+		if (ps.solved) {
+			player.sendMessage(messages.text(TriviaMessage.ALREADY_SOLVED), false);
+			return;
+		}
+		if (ps.failed) {
+			player.sendMessage(messages.text(TriviaMessage.ALREADY_FAILED), false);
+			return;
+		}
+		if (ps.aiValidationPending) {
+			player.sendMessage(messages.text(TriviaMessage.ALREADY_CHECKING), false);
+			return;
+		}
+
+		markGuessed(ps);
+
+		String correctAnswerRaw = round.activeQuestion.answer == null ? "" : round.activeQuestion.answer;
+		if (correctLocal) {
+			journalGuess(player, guessDisplay, arrivalNanos, TriviaJournalEntry.Guess.MATCHED);
+			handleCorrectGuess(player, ps, cfg, correctAnswerRaw, arrivalNanos);
+			return;
+		}
+
+		if (shouldTryAiValidation(cfg, correctAnswerRaw, guessDisplay)) {
+			ps.aiValidationPending = true;
+			ps.aiValidationRoundId = this.roundId;
+			ps.pendingGuessDisplay = guessDisplay;
+			ps.pendingGuessNormalized = guess;
+			ps.pendingGuessNanos = arrivalNanos;
+			journalGuess(player, guessDisplay, arrivalNanos, TriviaJournalEntry.Guess.AI_PENDING);
+			player.sendMessage(messages.text(TriviaMessage.CHECKING), false);
+
+			String question = round.activeQuestion.question;
+			ai.validateAnswer(cfg, question, correctAnswerRaw, guessDisplay)
+				.thenAccept(result -> {
+					MinecraftServer server = player.getServer();
+					if (server == null) {
+						return;
+					}
+					server.execute(() -> finalizeAiValidation(server, player, uuid, result));
+				});
+			return;
+		}
+
+		journalGuess(player, guessDisplay, arrivalNanos, TriviaJournalEntry.Guess.WRONG);
+		handleWrongGuess(player, ps, cfg, guessDisplay);
+	}
+
+	private void journalGuess(ServerPlayerEntity player, String guessDisplay, long arrivalNanos, byte outcome) {
+		if (!journal.isEnabled()) {
+			return;
+		}
+		journal.append(new TriviaJournalEntry.Guess(
+			System.currentTimeMillis(),
+			key,
+			roundId,
+			arrivalNanos,
+			player.getUuid(),
+			player.getName().getString(),
+			guessDisplay,
+			outcome
+		));
+	}
+
+	private void journalReward(ServerPlayerEntity player, TriviaRewarder.RewardResult reward) {
+		if (reward != null && journal.isEnabled()) {
+			journal.append(new TriviaJournalEntry.Reward(System.currentTimeMillis(), key, roundId, player.getUuid(), reward.itemId(), reward.count()));
+		}
+	}
+
+	private void punish(ServerPlayerEntity player, TriviaConfig cfg, String reason) {
+		TriviaPunisher.PunishResult result = punisher.punish(player, cfg, rng, reason);
+		if (result != null && journal.isEnabled()) {
+			journal.append(new TriviaJournalEntry.Punish(
+				System.currentTimeMillis(),
+				key,
+				roundId,
+				player.getUuid(),
+				result.effectId(),
+				result.durationSeconds(),
+				result.amplifier(),
+				reason
+			));
+		}
+	}
+
+	private static String normalizeAnswer(String s) {
+		if (s == null) {
+			return "";
+		}
+		// Trim trailing whitespace only (ending spaces) and ignore capitalization.
+		return s.stripTrailing().toLowerCase(Locale.ROOT);
+	}
+
+	private boolean handleHintRequest(ServerPlayerEntity player, TriviaConfig cfg) {
+		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
+			player.sendMessage(messages.text(TriviaMessage.NO_ACTIVE_QUESTION), false);
+			return true;
+		}
+		TriviaPlayerState ps = round.players.getOrCreate(player.getUuid());
+		if (!ai.isEnabled(cfg)) {
+			player.sendMessage(messages.text(TriviaMessage.HINT_DISABLED), false);
+			return true;
+		}
+		// Requirement: hints are only available after at least one WRONG guess.
+		if (ps.attemptsUsed <= 0) {
+			player.sendMessage(messages.text(TriviaMessage.HINT_NEEDS_WRONG_GUESS), false);
+			return true;
+		}
+
+		// Global-hint mode: no private hints are allowed.
+		if (cfg.aiHintsGlobalRequireAllPlayers) {
+			MinecraftServer server = player.getServer();
+			if (server == null) {
+				player.sendMessage(messages.text(TriviaMessage.SERVER_UNAVAILABLE), false);
+				return true;
+			}
+
+			if (round.globalHintRevealed) {
+				player.sendMessage(messages.text(TriviaMessage.HINT_GLOBAL_REVEALED), false);
+				return true;
+			}
+
+			// Only count players who have at least one wrong guess (attemptsUsed > 0).
+			// Players who solved immediately (0 wrong guesses) never become eligible.
+			if (ps.globalHintRequested) {
+				player.sendMessage(messages.text(TriviaMessage.HINT_GLOBAL_ALREADY_REQUESTED), false);
+				return true;
+			}
+			ps.globalHintRequested = true;
+			ps.hintsUsed++;
+			if (isEligibleForGlobalHint(ps)) {
+				round.hintRequestedEligible++;
+			}
+
+			int eligible = round.hintEligible;
+			int requested = round.hintRequestedEligible;
+			if (eligible <= 0) {
+				// Shouldn't happen because requesters are required to have attemptsUsed>0, but keep it safe.
+				player.sendMessage(messages.text(TriviaMessage.HINT_GLOBAL_NONE_ELIGIBLE), false);
+				return true;
+			}
+			broadcast(
+				server,
+				messages.text(TriviaMessage.HINT_GLOBAL_REQUESTED, player.getName().getString(), requested, eligible),
+				TriviaAudience.Category.CHATTER
+			);
+
+			if (requested < eligible) {
+				return true;
+			}
+
+			round.globalHintRevealed = true;
+			broadcast(server, messages.text(TriviaMessage.HINT_GLOBAL_GENERATING), TriviaAudience.Category.CHATTER);
+			String q = round.activeQuestion.question;
+			String a = round.activeQuestion.answer;
+			ai.generateHint(cfg, q, a).thenAccept(hint -> {
+				MinecraftServer srv = player.getServer();
+				if (srv == null) {
+					return;
+				}
+				srv.execute(() -> broadcast(srv, messages.text(TriviaMessage.HINT, hint), TriviaAudience.Category.ESSENTIAL));
+			});
+			return true;
+		}
+
+		// Default: private hint with per-player cooldown.
+		long now = System.currentTimeMillis();
+		int cooldownSeconds = Math.max(0, cfg.aiHintCooldownSeconds);
+		long cooldownMillis = cooldownSeconds * 1000L;
+		if (ps.lastHintRoundId == this.roundId && cooldownMillis > 0 && (now - ps.lastHintMillis) < cooldownMillis) {
+			long left = (cooldownMillis - (now - ps.lastHintMillis) + 999) / 1000;
+			player.sendMessage(messages.text(TriviaMessage.HINT_COOLDOWN, left), false);
+			return true;
+		}
+		ps.lastHintMillis = now;
+		ps.lastHintRoundId = this.roundId;
+		ps.hintsUsed++;
+		player.sendMessage(messages.text(TriviaMessage.HINT_GENERATING), false);
+		String q = round.activeQuestion.question;
+		String a = round.activeQuestion.answer;
+		ai.generateHint(cfg, q, a).thenAccept(hint -> {
+			MinecraftServer server = player.getServer();
+			if (server == null) {
+				return;
+			}
+			server.execute(() -> player.sendMessage(messages.text(TriviaMessage.HINT, hint), false));
+		});
+		return true;
+	}
+
+	private static boolean isEligibleForGlobalHint(TriviaPlayerState ps) {
+		if (ps == null) {
+			return false;
+		}
+		// Eligible: at least 1 wrong guess, and still active (not solved, not failed-out).
+		return ps.attemptsUsed > 0 && !ps.solved && !ps.failed;
+	}
+
+	private void trackHintEligibility(TriviaPlayerState ps, boolean wasEligible, boolean nowEligible) {
+		if (wasEligible == nowEligible) {
+			return;
+		}
+		int delta = nowEligible ? 1 : -1;
+		round.hintEligible += delta;
+		if (ps != null && ps.globalHintRequested) {
+			round.hintRequestedEligible += delta;
+		}
+	}
+
+	private void handleCorrectGuess(ServerPlayerEntity player, TriviaPlayerState ps, TriviaConfig cfg, String correctAnswerRaw, long arrivalNanos) {
+		ps.aiValidationPending = false;
+		TriviaTeamState team = teamOf(player, cfg);
+		if (team != null) {
+			handleTeamCorrectGuess(player, team, cfg, correctAnswerRaw, arrivalNanos);
+			return;
+		}
+		markSolved(player, ps, arrivalNanos);
+		// Keep chat chronological: pending wrong guesses go out before the (immediate) correct announcement.
+		flushBattleBroadcasts(player.getServer());
+		String correctAnswer = correctAnswerRaw == null ? "" : correctAnswerRaw.stripTrailing();
+		TriviaRewarder.RewardResult reward = rewarder.reward(player, rng);
+		journalReward(player, reward);
+		if (reward != null) {
+			ps.rewardCount = reward.count();
+			ps.rewardItemName = reward.itemName();
+		}
+		player.sendMessage(messages.text(TriviaMessage.CORRECT, normalizeAnswer(correctAnswer)), false);
+		if (reward != null) {
+			player.sendMessage(messages.text(TriviaMessage.REWARD, reward.count(), reward.itemName()), false);
+		} else {
+			player.sendMessage(messages.text(TriviaMessage.REWARD_EMPTY), false);
+		}
+		if (burstIndex > 0) {
+			int points = speedStats.recordCorrect(player.getUuid(), player.getName().getString(), arrivalNanos);
+			String seconds = TriviaSpeedStats.formatSeconds(speedStats.elapsedNanos(arrivalNanos));
+			player.sendMessage(messages.text(TriviaMessage.SPEED_CORRECT, points, seconds), false);
+		}
+		if (cfg.announceCorrectGuesses) {
+			Text announce = messages.text(TriviaMessage.CORRECT_ANNOUNCE, player.getName().getString());
+			if (cfg.showAnswerInstructions) {
+				announce = Text.empty().append(announce).append(messages.text(TriviaMessage.CORRECT_ANNOUNCE_SUFFIX));
+			}
+			broadcast(player.getServer(), announce, TriviaAudience.Category.CHATTER);
+		}
+		maybeEndRoundEarly(player.getServer());
+	}
+
+	private void handleWrongGuess(ServerPlayerEntity player, TriviaPlayerState ps, TriviaConfig cfg, String guessDisplay) {
+		ps.aiValidationPending = false;
+		markGuessed(ps);
+		ps.attemptsUsed++;
+		if (ps.attemptsUsed == 1 && !player.isDisconnected()) {
+			trackHintEligibility(ps, false, isEligibleForGlobalHint(ps));
+		}
+
+		// Real-time global-hint eligibility counter updates (only when a player becomes eligible).
+		if (cfg.aiHintsGlobalRequireAllPlayers && !round.globalHintRevealed && ps.attemptsUsed == 1) {
+			MinecraftServer server = player.getServer();
+			if (server != null) {
+				int eligible = round.hintEligible;
+				int requested = round.hintRequestedEligible;
+				battleBroadcasts.setProgress(messages.format(TriviaMessage.HINT_GLOBAL_PROGRESS, requested, eligible));
+				scheduleBattleFlush(server, cfg);
+			}
+		}
+		TriviaTeamState team = teamOf(player, cfg);
+		if (team != null) {
+			team.attemptsUsed++;
+			if (cfg.teamMaxAttempts >= 0 && team.attemptsUsed >= cfg.teamMaxAttempts) {
+				failTeam(player, team, cfg);
+				return;
+			}
+		} else if (cfg.maxAttempts >= 0 && ps.attemptsUsed >= cfg.maxAttempts) {
+			markFailed(player, ps);
+			punish(player, cfg, "max attempts");
+			maybeEndRoundEarly(player.getServer());
+			return;
+		}
+
+		if (cfg.battleModeWrongGuessBroadcast) {
+			battleBroadcasts.addWrongGuess(
+				cfg.battleModeShowWrongGuesserName ? player.getName().getString() : null,
+				guessDisplay
+			);
+			scheduleBattleFlush(player.getServer(), cfg);
+		}
+
+		if (team != null) {
+			String teamTriesLeft = (cfg.teamMaxAttempts < 0)
+				? messages.format(TriviaMessage.UNLIMITED)
+				: Integer.toString(Math.max(0, cfg.teamMaxAttempts - team.attemptsUsed));
+			player.sendMessage(messages.text(TriviaMessage.TEAM_WRONG, teamTriesLeft), false);
+			return;
+		}
+		String triesLeft = (cfg.maxAttempts < 0)
+			? messages.format(TriviaMessage.UNLIMITED)
+			: Integer.toString(Math.max(0, cfg.maxAttempts - ps.attemptsUsed));
+		player.sendMessage(messages.text(TriviaMessage.WRONG, triesLeft), false);
+	}
+
+	/**
+	 * Team play record for {@code player}, or null when team play is off or they have no team.
+	 */
+	private TriviaTeamState teamOf(ServerPlayerEntity player, TriviaConfig cfg) {
+		if (!cfg.teamPlay) {
+			return null;
+		}
+		Team team = player.getScoreboardTeam();
+		if (team == null) {
+			return null;
+		}
+		return round.teams.computeIfAbsent(team.getName(), TriviaTeamState::new);
+	}
+
+	/**
+	 * Online members of {@code team} that play in this channel.
+	 */
+	private List<ServerPlayerEntity> teamMembers(MinecraftServer server, TriviaTeamState team) {
+		List<ServerPlayerEntity> out = new ArrayList<>();
+		Team scoreboardTeam = server == null ? null : server.getScoreboard().getTeam(team.teamName);
+		if (scoreboardTeam == null) {
+			return out;
+		}
+		for (String name : scoreboardTeam.getPlayerList()) {
+			ServerPlayerEntity member = server.getPlayerManager().getPlayer(name);
+			if (member != null && game.channelOf(member) == this) {
+				out.add(member);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * First correct answer for a team: the whole team is solved, rewarded and told in one pass.
+	 */
+	private void handleTeamCorrectGuess(ServerPlayerEntity player, TriviaTeamState team, TriviaConfig cfg, String correctAnswerRaw, long arrivalNanos) {
+		MinecraftServer server = player.getServer();
+		String name = player.getName().getString();
+		team.solved = true;
+		team.solvedBy = name;
+		flushBattleBroadcasts(server);
+
+		int points = 1;
+		if (burstIndex > 0) {
+			points = speedStats.recordCorrect(player.getUuid(), name, arrivalNanos);
+			String seconds = TriviaSpeedStats.formatSeconds(speedStats.elapsedNanos(arrivalNanos));
+			player.sendMessage(messages.text(TriviaMessage.SPEED_CORRECT, points, seconds), false);
+		}
+		team.score += points;
+
+		String answer = normalizeAnswer(correctAnswerRaw == null ? "" : correctAnswerRaw.stripTrailing());
+		Text teamLine = messages.text(TriviaMessage.TEAM_CORRECT, name, answer);
+		for (ServerPlayerEntity member : teamMembers(server, team)) {
+			TriviaPlayerState mps = round.players.getOrCreate(member.getUuid());
+			mps.aiValidationPending = false;
+			markSolved(member, mps, arrivalNanos);
+			TriviaRewarder.RewardResult reward = rewarder.reward(member, rng);
+			journalReward(member, reward);
+			member.sendMessage(teamLine, false);
+			if (reward != null) {
+				mps.rewardCount = reward.count();
+				mps.rewardItemName = reward.itemName();
+				member.sendMessage(messages.text(TriviaMessage.REWARD, reward.count(), reward.itemName()), false);
+			} else {
+				member.sendMessage(messages.text(TriviaMessage.REWARD_EMPTY), false);
+			}
+		}
+		if (cfg.announceCorrectGuesses) {
+			broadcast(server, messages.text(TriviaMessage.TEAM_CORRECT_ANNOUNCE, team.teamName, name), TriviaAudience.Category.CHATTER);
+		}
+		maybeEndRoundEarly(server);
+	}
+
+	/**
+	 * The team's shared attempt pool ran out: every member is out for this round.
+	 */
+	private void failTeam(ServerPlayerEntity player, TriviaTeamState team, TriviaConfig cfg) {
+		MinecraftServer server = player.getServer();
+		team.failed = true;
+		Text line = messages.text(TriviaMessage.TEAM_OUT_OF_TRIES, player.getName().getString());
+		for (ServerPlayerEntity member : teamMembers(server, team)) {
+			TriviaPlayerState mps = round.players.getOrCreate(member.getUuid());
+			markFailed(member, mps);
+			member.sendMessage(line, false);
+			punish(member, cfg, "team out of attempts");
+		}
+		maybeEndRoundEarly(server);
+	}
+
+	private String teamScores() {
+		List<TriviaTeamState> sorted = new ArrayList<>(round.teams.values());
+		sorted.removeIf(t -> t.score <= 0);
+		sorted.sort((a, b) -> Integer.compare(b.score, a.score));
+		StringBuilder sb = new StringBuilder();
+		for (TriviaTeamState t : sorted) {
+			if (sb.length() > 0) {
+				sb.append(", ");
+			}
+			sb.append(t.teamName).append(' ').append(t.score);
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Batches battle-mode broadcasts for battleBroadcastWindowMillis; 0 sends them immediately.
+	 */
+	private void scheduleBattleFlush(MinecraftServer server, TriviaConfig cfg) {
+		if (cfg.battleBroadcastWindowMillis <= 0) {
+			flushBattleBroadcasts(server);
+			return;
+		}
+		if (battleFlushTimer == null) {
+			battleFlushTimer = scheduler.schedule(cfg.battleBroadcastWindowMillis * 1_000_000L, this::flushBattleBroadcasts);
+		}
+	}
+
+	private void flushBattleBroadcasts(MinecraftServer server) {
+		scheduler.cancel(battleFlushTimer);
+		battleFlushTimer = null;
+		if (battleBroadcasts.isEmpty()) {
+			return;
+		}
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		String suffix = cfg.showAnswerInstructions
+			? messages.format(TriviaMessage.BATTLE_SUFFIX)
+			: "";
+		battleBroadcasts.flush(server, this, messages, suffix, cfg.battleBroadcastMaxLength);
+	}
+
+	private boolean shouldTryAiValidation(TriviaConfig cfg, String correctAnswerRaw, String guessDisplay) {
+		if (cfg == null || !cfg.aiSemanticAnswerValidation || !ai.isEnabled(cfg)) {
+			return false;
+		}
+		String correctLoose = AnswerMatcher.normalizeLoose(correctAnswerRaw);
+		String guessLoose = AnswerMatcher.normalizeLoose(guessDisplay);
+		if (correctLoose.isEmpty() || guessLoose.isEmpty()) {
+			return false;
+		}
+		// Only consult AI for "close" guesses to keep API usage sane.
+		int max = Math.max(2, Math.max(cfg.fuzzyMaxEditDistance, 3) + 2);
+		return AnswerMatcher.levenshteinWithin(correctLoose, guessLoose, max);
+	}
+
+	private void finalizeAiValidation(MinecraftServer server, ServerPlayerEntity player, UUID uuid, TriviaAiService.AiValidationResult result) {
+		if (server == null || player == null || result == null) {
+			return;
+		}
+		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
+			return;
+		}
+		TriviaPlayerState ps = round.players.get(uuid);
+		if (ps == null || !ps.aiValidationPending || ps.aiValidationRoundId != this.roundId) {
+			return;
+		}
+		ps.aiValidationPending = false;
+
+		// Player might have solved/failed via another path while we waited.
+		if (ps.solved || ps.failed) {
+			return;
+		}
+		if (journal.isEnabled()) {
+			journal.append(new TriviaJournalEntry.AiVerdict(System.currentTimeMillis(), key, roundId, uuid, result.isCorrect()));
+		}
+
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		String correctAnswerRaw = round.activeQuestion.answer;
+		if (result.isCorrect()) {
+			handleCorrectGuess(player, ps, cfg, correctAnswerRaw, ps.pendingGuessNanos);
+			return;
+		}
+
+		handleWrongGuess(player, ps, cfg, ps.pendingGuessDisplay == null ? "" : ps.pendingGuessDisplay);
+	}
+
+	private void startRound(MinecraftServer server) {
+		List<TriviaQuestion> qs = questionsManager.getQuestions();
+		if (questionsManager.getLiveCount() == 0) {
+			// Try again later.
+			phase = Phase.COOLDOWN;
+			schedulePhase(60);
+			return;
+		}
+
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		if (burstIndex == 0 && "speed".equalsIgnoreCase(cfg.roundMode)) {
+			burstSize = Math.max(1, cfg.speedRoundQuestions);
+			speedStats.beginBurst();
+			broadcast(
+				server,
+				messages.text(TriviaMessage.SPEED_START, burstSize, Math.max(1, cfg.speedQuestionSeconds)),
+				TriviaAudience.Category.ESSENTIAL
+			);
+		}
+		int duration = cfg.questionDurationSeconds;
+		if (burstSize > 0) {
+			burstIndex++;
+			duration = Math.max(1, cfg.speedQuestionSeconds);
+		}
+
+		round.reset();
+		game.adaptive.beforePick(questionsManager, cfg);
+		List<UUID> viewers = cfg.preferUnseenQuestions ? onlineMemberIds(server) : List.of();
+		round.activeQuestion = pickRandomQuestionWithHistory(qs, viewers);
+		if (round.activeQuestion == null) {
+			endBurst();
+			phase = Phase.COOLDOWN;
+			schedulePhase(60);
+			return;
+		}
+		game.seen.markSeen(questionsManager, viewers, round.activeQuestionIndex);
+		if (burstSize == 0) {
+			duration = game.adaptive.durationSeconds(round.activeQuestionIndex, round.bankVersion, duration, cfg);
+		}
+		this.roundId++;
+		long seed = game.nextRoundSeed();
+		rng.setSeed(seed);
+		phase = Phase.ACTIVE;
+		schedulePhase(duration);
+
+		String q = round.activeQuestion.question;
+		Text question = burstIndex > 0
+			? messages.text(TriviaMessage.SPEED_QUESTION, burstIndex, burstSize, q)
+			: messages.text(TriviaMessage.QUESTION, q);
+		broadcast(server, question, TriviaAudience.Category.ESSENTIAL);
+		if (cfg.showAnswerInstructions && burstIndex <= 1) {
+			broadcast(server, game.instructionLine(cfg, duration), TriviaAudience.Category.CHATTER);
+		}
+		// Response times are measured from here, after the question went out.
+		round.startedNanos = System.nanoTime();
+		speedStats.beginQuestion(round.startedNanos, duration * TriviaScheduler.NANOS_PER_SECOND);
+		journal.append(new TriviaJournalEntry.RoundStart(
+			System.currentTimeMillis(),
+			key,
+			roundId,
+			round.startedNanos,
+			seed,
+			round.activeQuestion.key(),
+			q,
+			round.activeQuestion.answer,
+			duration
+		));
+	}
+
+
+	/**
+	 * Weighted pick (see {@link TriviaQuestionSampler}) that skips the last QUESTION_NO_REPEAT_WINDOW
+	 * questions and, given {@code viewers}, prefers questions none of them has seen.
+	 */
+	private TriviaQuestion pickRandomQuestionWithHistory(List<TriviaQuestion> qs, List<UUID> viewers) {
+		if (qs == null || qs.isEmpty() || questionsManager.getLiveCount() == 0) {
+			return null;
+		}
+
+		TriviaQuestionSampler sampler = questionsManager.getSampler();
+		int window = Math.max(0, Math.min(QUESTION_NO_REPEAT_WINDOW, questionsManager.getLiveCount() - 1));
+		IntPredicate recent;
+		if (window <= 0 || recentQuestionKeySet.isEmpty()) {
+			recent = i -> false;
+		} else {
+			recent = i -> {
+				String key = questionKey(qs.get(i));
+				return !key.isEmpty() && recentQuestionKeySet.contains(key);
+			};
+		}
+		int index = forcedQuestionIndex >= 0 && forcedQuestionIndex < qs.size() && !questionsManager.isRemoved(forcedQuestionIndex)
+			? forcedQuestionIndex
+			: game.seen.pick(questionsManager, rng, viewers, recent);
+		if (index < 0) {
+			// Not enough unique questions to satisfy the window; fall back to any question.
+			index = sampler.sample(rng);
+		}
+
+		if (index < 0 || index >= qs.size()) {
+			index = rng.nextInt(qs.size());
+		}
+		// Defensive: the sampler never returns a removed question while any live one is left.
+		for (int tries = 0; questionsManager.isRemoved(index) && tries < qs.size(); tries++) {
+			index = (index + 1) % qs.size();
+		}
+		TriviaQuestion picked = qs.get(index);
+		round.activeQuestionIndex = index;
+		round.bankVersion = questionsManager.getVersion();
+		recordPickedQuestion(picked, window);
+		return picked;
+	}
+
+	private List<UUID> onlineMemberIds(MinecraftServer server) {
+		List<UUID> ids = new ArrayList<>();
+		for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
+			if (game.channelOf(p) == this) {
+				ids.add(p.getUuid());
+			}
+		}
+		return ids;
+	}
+
+	private void recordPickedQuestion(TriviaQuestion q, int window) {
+		if (q == null) {
+			return;
+		}
+		String key = questionKey(q);
+		if (key.isEmpty()) {
+			return;
+		}
+		recentQuestionKeys.addLast(key);
+		recentQuestionKeySet.add(key);
+		while (recentQuestionKeys.size() > window) {
+			String removed = recentQuestionKeys.removeFirst();
+			recentQuestionKeySet.remove(removed);
+		}
+	}
+
+	private static String questionKey(TriviaQuestion q) {
+		if (q == null) {
+			return "";
+		}
+		String question = q.question == null ? "" : q.question.stripTrailing();
+		String answer = q.answer == null ? "" : q.answer.stripTrailing();
+		if (question.isBlank()) {
+			return "";
+		}
+		return question + "\n" + answer;
+	}
+
+	private void endRound(MinecraftServer server, boolean allAnswered) {
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		String answer = (round.activeQuestion != null && round.activeQuestion.answer != null)
+			? round.activeQuestion.answer.stripTrailing()
+			: "";
+
+		// Single pass over players that interacted this round (not the whole server).
+		// Rewards are granted immediately on correct guess; here we summarize and punish timeouts.
+		List<String> winners = new java.util.ArrayList<>();
+		long now = System.currentTimeMillis();
+		int solved = 0;
+		int timedSolves = 0;
+		long solveMillisSum = 0;
+		for (int i = 0; i < round.players.touchedCount(); i++) {
+			TriviaPlayerState ps = round.players.touched(i);
+			ServerPlayerEntity player = server.getPlayerManager().getPlayer(ps.playerId);
+			recordStats(ps, player, now);
+			if (ps.solved) {
+				solved++;
+				if (ps.solveMillis > 0) {
+					timedSolves++;
+					solveMillisSum += ps.solveMillis;
+				}
+			}
+			if (player == null) {
+				continue;
+			}
+			if (ps.solved) {
+				String rewardText = (ps.rewardItemName != null && !ps.rewardItemName.isBlank() && ps.rewardCount > 0)
+					? (ps.rewardCount + "x " + ps.rewardItemName)
+					: "reward";
+				winners.add(player.getName().getString() + " (" + rewardText + ")");
+				continue;
+			}
+			if (ps.failed || !ps.guessedOnce) {
+				continue;
+			}
+			ps.failed = true;
+			punish(player, cfg, "time limit");
+		}
+		game.onRoundRecorded(server);
+		game.adaptive.recordRound(round.activeQuestionIndex, round.bankVersion, round.participants, solved, solveMillisSum, timedSolves);
+		journal.append(new TriviaJournalEntry.RoundEnd(
+			now,
+			key,
+			roundId,
+			System.nanoTime(),
+			allAnswered ? TriviaJournalEntry.RoundEnd.ALL_ANSWERED : TriviaJournalEntry.RoundEnd.TIMEOUT,
+			solved,
+			round.participants
+		));
+
+		flushBattleBroadcasts(server);
+		TriviaMessage closing = allAnswered ? TriviaMessage.ROUND_END_ALL_ANSWERED : TriviaMessage.ROUND_END_TIMEOUT;
+		broadcast(server, messages.text(closing, answer), TriviaAudience.Category.ESSENTIAL);
+		if (!winners.isEmpty()) {
+			broadcast(server, messages.text(TriviaMessage.WINNERS, String.join(", ", winners)), TriviaAudience.Category.ESSENTIAL);
+		} else {
+			broadcast(server, messages.text(TriviaMessage.NO_WINNERS), TriviaAudience.Category.ESSENTIAL);
+		}
+		if (cfg.teamPlay && !round.teams.isEmpty()) {
+			String scores = teamScores();
+			if (!scores.isEmpty()) {
+				broadcast(server, messages.text(TriviaMessage.TEAM_SCORES, scores), TriviaAudience.Category.CHATTER);
+			}
+		}
+		if (burstIndex > 0 && finishSpeedQuestion(server)) {
+			return;
+		}
+		double participation = onlinePlayers > 0 ? Math.min(1.0, (double) round.participants / onlinePlayers) : 0.0;
+		resetToCooldown(participation);
+	}
+
+	void resetToCooldown() {
+		journalDroppedRound();
+		discardBattleBroadcasts();
+		resetToCooldown(0.0);
+	}
+
+	/**
+	 * Drops queued wrong-guess summaries of a round that is abandoned rather than ended.
+	 */
+	private void discardBattleBroadcasts() {
+		scheduler.cancel(battleFlushTimer);
+		battleFlushTimer = null;
+		battleBroadcasts.clear();
+	}
+
+	/**
+	 * Closes the open round in the journal when it is abandoned without an end (reset or suspend).
+	 */
+	private void journalDroppedRound() {
+		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
+			return;
+		}
+		journal.append(new TriviaJournalEntry.RoundEnd(
+			System.currentTimeMillis(),
+			key,
+			roundId,
+			System.nanoTime(),
+			TriviaJournalEntry.RoundEnd.DROPPED,
+			solvedCount(),
+			round.participants
+		));
+	}
+
+	private int solvedCount() {
+		int solved = 0;
+		for (int i = 0; i < round.players.touchedCount(); i++) {
+			if (round.players.touched(i).solved) {
+				solved++;
+			}
+		}
+		return solved;
+	}
+
+	/**
+	 * A round counts for a player once they guessed (or their team solved or failed it). Anyone who
+	 * guessed without solving has failed it, including by running out of time.
+	 */
+	private void recordStats(TriviaPlayerState ps, ServerPlayerEntity player, long epochMillis) {
+		if (!ps.solved && !ps.failed && !ps.guessedOnce) {
+			return;
+		}
+		game.stats.record(new TriviaStatsEvent(
+			ps.playerId,
+			player == null ? null : player.getName().getString(),
+			ps.solved ? TriviaStatsEvent.SOLVED : TriviaStatsEvent.FAILED,
+			epochMillis,
+			(int) Math.min(Integer.MAX_VALUE, Math.max(0, ps.solveMillis)),
+			ps.attemptsUsed,
+			ps.hintsUsed
+		));
+	}
+
+	/**
+	 * Logs the question's answer-time histogram and either queues the next burst question or, after
+	 * the last one, reports the burst results.
+	 *
+	 * @return true if the burst continues (the next question is already scheduled)
+	 */
+	private boolean finishSpeedQuestion(MinecraftServer server) {
+		TriviaMod.LOGGER.info(
+			"Trivia [{}] speed question {}/{} answer times: {}",
+			key,
+			burstIndex,
+			burstSize,
+			speedStats.questionHistogram()
+		);
+		if (burstIndex < burstSize) {
+			phase = Phase.COOLDOWN;
+			round.reset();
+			schedulePhase(SPEED_GAP_SECONDS);
+			return true;
+		}
+		if (speedStats.hasScores()) {
+			broadcast(server, messages.text(TriviaMessage.SPEED_RESULTS, speedStats.topScores(SPEED_TOP_SCORES)), TriviaAudience.Category.ESSENTIAL);
+			broadcast(server, messages.text(TriviaMessage.SPEED_HISTOGRAM, speedStats.burstHistogram()), TriviaAudience.Category.CHATTER);
+		} else {
+			broadcast(server, messages.text(TriviaMessage.SPEED_NO_SCORES), TriviaAudience.Category.ESSENTIAL);
+		}
+		TriviaMod.LOGGER.info("Trivia [{}] speed round answer times: {}", key, speedStats.burstHistogram());
+		return false;
+	}
+
+	private void endBurst() {
+		burstSize = 0;
+		burstIndex = 0;
+	}
+
+	/**
+	 * @param participation fraction (0..1) of online players that guessed in the round that just ended
+	 */
+	private void resetToCooldown(double participation) {
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		int cooldown = cfg.cooldownSeconds;
+		if (cfg.adaptiveCooldown && participation > 0) {
+			int min = Math.max(1, Math.min(cfg.adaptiveCooldownMinSeconds, cfg.cooldownSeconds));
+			cooldown = (int) Math.round(cfg.cooldownSeconds - (cfg.cooldownSeconds - min) * participation);
+		}
+		phase = Phase.COOLDOWN;
+		round.reset();
+		endBurst();
+		TriviaMod.LOGGER.debug("Trivia player states allocated so far: {}", round.players.allocatedStates());
+		if (suspended) {
+			suspendedCooldownNanos = Math.max(1, cooldown) * TriviaScheduler.NANOS_PER_SECOND;
+			return;
+		}
+		schedulePhase(cooldown);
+		TriviaMod.LOGGER.info("Trivia [{}] cooldown started: {}s", key, cooldown);
+	}
+
+	void onCooldownConfigChanged(TriviaConfig cfg) {
+		// A shorter cooldown takes effect immediately instead of after the current one runs out.
+		if (phase == Phase.COOLDOWN && phaseTimer != null) {
+			long cooldownNanos = Math.max(1, cfg.cooldownSeconds) * TriviaScheduler.NANOS_PER_SECOND;
+			if (scheduler.remainingNanos(phaseTimer) > cooldownNanos) {
+				scheduler.cancel(phaseTimer);
+				phaseTimer = scheduler.schedule(cooldownNanos, this::onPhaseDeadline);
+			}
+		}
+	}
+}
@@ -1,598 +1,497 @@
 package mod.trivia.game;
 
 import mod.trivia.ai.TriviaAiService;
+import mod.trivia.analytics.TriviaQuestionAnalytics;
 import mod.trivia.TriviaMod;
 import mod.trivia.config.TriviaConfig;
 import mod.trivia.config.TriviaConfigManager;
+import mod.trivia.config.TriviaConfigReloader;
+import mod.trivia.journal.TriviaJournal;
+import mod.trivia.message.TriviaMessage;
+import mod.trivia.message.TriviaMessages;
 import mod.trivia.punish.TriviaPunisher;
-import mod.trivia.questions.TriviaQuestion;
+import mod.trivia.questions.TriviaQuestionSampler;
+import mod.trivia.questions.TriviaQuestionStats;
 import mod.trivia.questions.TriviaQuestionsManager;
 import mod.trivia.reward.TriviaRewarder;
-import mod.trivia.util.AnswerMatcher;
+import mod.trivia.seen.TriviaSeenTracker;
+import mod.trivia.stats.TriviaLeaderboard;
+import mod.trivia.stats.TriviaStatsStore;
+import mod.trivia.util.GuessRateLimiter;
+import net.minecraft.scoreboard.Team;
 import net.minecraft.server.MinecraftServer;
 import net.minecraft.server.network.ServerPlayerEntity;
 import net.minecraft.text.Text;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayDeque;
-import java.util.HashSet;
-import java.util.Locale;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.SplittableRandom;
 import java.util.UUID;
-import java.util.random.RandomGenerator;
-
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Owns the shared trivia services and routes players to {@link TriviaChannel}s.
+ *
+ * With channelMode "global" there is a single channel for everyone. With "dimension" or "team",
+ * every dimension / scoreboard team gets its own independent round loop. Routing a guess is one map
+ * lookup; memberships are re-resolved once per second.
+ */
 public final class TriviaGame {
-	private static final int QUESTION_NO_REPEAT_WINDOW = 20;
+	static final String GLOBAL_CHANNEL = "global";
+	private static final long QUESTION_EDIT_COMPACT_SECONDS = 300;
 
-	private enum Phase {
-		COOLDOWN,
-		ACTIVE
-	}
+	enum ChannelMode {
+		GLOBAL,
+		DIMENSION,
+		TEAM;
 
-	private final TriviaQuestionsManager questionsManager = new TriviaQuestionsManager();
-	private final TriviaRewarder rewarder = new TriviaRewarder();
-	private final TriviaPunisher punisher = new TriviaPunisher();
-	private final TriviaAiService ai = new TriviaAiService();
-
-	private final RandomGenerator rng = RandomGenerator.getDefault();
-	private final ArrayDeque<String> recentQuestionKeys = new ArrayDeque<>();
-	private final HashSet<String> recentQuestionKeySet = new HashSet<>();
+		static ChannelMode parse(String raw) {
+			if (raw == null) {
+				return GLOBAL;
+			}
+			return switch (raw.strip().toLowerCase(Locale.ROOT)) {
+				case "dimension" -> DIMENSION;
+				case "team" -> TEAM;
+				default -> GLOBAL;
+			};
+		}
+	}
 
-	private Phase phase = Phase.COOLDOWN;
-	private long phaseTicksRemaining = 0;
-	private TriviaRoundState round = new TriviaRoundState();
-	private long roundId = 0;
+	final TriviaQuestionsManager questionsManager = new TriviaQuestionsManager();
+	final TriviaRewarder rewarder = new TriviaRewarder();
+	final TriviaPunisher punisher = new TriviaPunisher();
+	final TriviaAiService ai = new TriviaAiService();
+	private final TriviaConfigReloader configReloader = new TriviaConfigReloader();
+	private TriviaConfig appliedConfig;
+
+	// Only draws per-round seeds; each channel's in-round RandomGenerator is reseeded from it.
+	private final SplittableRandom seedSource = new SplittableRandom();
+
+	final TriviaScheduler scheduler = new TriviaScheduler();
+	private final TriviaGuessQueue guessQueue = new TriviaGuessQueue();
+	private final GuessRateLimiter guessLimiter = new GuessRateLimiter();
+	final TriviaAudience audience = new TriviaAudience();
+	final TriviaMessages messages = new TriviaMessages();
+	final TriviaStatsStore stats = new TriviaStatsStore();
+	final TriviaJournal journal = new TriviaJournal();
+	final TriviaAdaptiveDifficulty adaptive = new TriviaAdaptiveDifficulty();
+	final TriviaSeenTracker seen = new TriviaSeenTracker();
+	private final TriviaLeaderboard leaderboard = new TriviaLeaderboard();
+	private final TriviaLeaderboardObjective leaderboardObjective = new TriviaLeaderboardObjective();
+	private Text instructionLine;
+	private int instructionLineSeconds;
+
+	private ChannelMode channelMode = ChannelMode.GLOBAL;
+	private boolean membershipDirty;
+	private final Map<String, TriviaChannel> channels = new HashMap<>();
+	// Read from the chat thread, so it must be concurrent.
+	private final ConcurrentHashMap<UUID, TriviaChannel> members = new ConcurrentHashMap<>();
 
 	private long configLastModifiedMillis = -1;
-	private long configCheckTicker = 0;
 
-	public void reloadFromDisk() {
-		TriviaConfigManager.loadAll();
-		questionsManager.reload();
-		rewarder.rebuildPools(TriviaConfigManager.getConfig());
-		punisher.rebuildPools();
-		resetToCooldown();
+	public TriviaGame() {
+		configReloader.register("rewarder", Set.of("itemBlacklist", "rewardCountOverride"), rewarder::rebuildPools);
+		// Effect pool is registry-only; it is rebuilt on full reloads, never on settings edits.
+		configReloader.register("punisher", Set.of(), cfg -> punisher.rebuildPools());
+		configReloader.register(
+			"ai",
+			Set.of("aiEnabled", "openAiApiKey", "openAiModel", "aiRequestTimeoutSeconds"),
+			cfg -> ai.resetRateLimit()
+		);
+		configReloader.register("scheduler", Set.of("cooldownSeconds", "schedulerClock"), this::onScheduleConfigChanged);
+		configReloader.register("round", Set.of("enabled"), cfg -> channels.values().forEach(TriviaChannel::resetToCooldown));
+		configReloader.register(
+			"messages",
+			Set.of("answerPrefix", "maxAttempts", "questionDurationSeconds", "aiHintsGlobalRequireAllPlayers"),
+			this::rebuildCachedMessages
+		);
+		configReloader.register(
+			"ratelimit",
+			Set.of("guessRateLimitPerSecond", "guessRateLimitBurst"),
+			cfg -> guessLimiter.configure(cfg.guessRateLimitPerSecond, cfg.guessRateLimitBurst)
+		);
+		configReloader.register("channels", Set.of("channelMode"), cfg -> {
+			channelMode = ChannelMode.parse(cfg.channelMode);
+			membershipDirty = true;
+		});
+		configReloader.register(
+			"leaderboard",
+			Set.of("leaderboardObjective"),
+			cfg -> leaderboard.markAllChanged(stats.all())
+		);
+		configReloader.register(
+			"selection",
+			Set.of("categoryWeights", "difficultyWeights"),
+			cfg -> questionsManager.setSelectionWeight(TriviaQuestionSampler.configuredWeight(cfg.categoryWeights, cfg.difficultyWeights))
+		);
+		configReloader.register("journal", Set.of("roundJournal", "roundJournalMaxSegments"), journal::configure);
+		configReloader.register("seen", Set.of("preferUnseenQuestions"), seen::configure);
+		stats.addListener(leaderboard);
+		scheduler.scheduleSeconds(1, this::onConfigCheck);
+		scheduler.scheduleSeconds(QUESTION_EDIT_COMPACT_SECONDS, this::onQuestionEditCompaction);
 	}
 
-	public String getActiveAnswerForAdmin() {
-		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
-			return null;
-		}
-		String a = round.activeQuestion.answer;
-		if (a == null) {
-			return null;
-		}
-		return a.stripTrailing();
+	/**
+	 * Registers an external config-dependent subsystem. Must be called before the first reload.
+	 */
+	public void addConfigListener(String name, Set<String> fields, Consumer<TriviaConfig> listener) {
+		configReloader.register(name, fields, listener);
 	}
 
-	public void onServerTick(MinecraftServer server) {
-		reloadConfigIfChanged(server);
+	public GuessRateLimiter getGuessLimiter() {
+		return guessLimiter;
+	}
 
-		TriviaConfig cfg = TriviaConfigManager.getConfig();
-		if (!cfg.enabled) {
-			return;
-		}
+	public TriviaMessages getMessages() {
+		return messages;
+	}
 
-		if (phaseTicksRemaining > 0) {
-			phaseTicksRemaining--;
-		}
+	public TriviaAudience getAudience() {
+		return audience;
+	}
 
-		if (phaseTicksRemaining > 0) {
-			return;
-		}
+	public TriviaStatsStore getStats() {
+		return stats;
+	}
 
-		if (phase == Phase.COOLDOWN) {
-			startRound(server);
-			return;
-		}
+	public TriviaLeaderboard getLeaderboard() {
+		return leaderboard;
+	}
 
-		if (phase == Phase.ACTIVE) {
-			endRound(server);
-		}
+	public TriviaQuestionsManager getQuestionsManager() {
+		return questionsManager;
+	}
+
+	public Collection<TriviaChannel> getChannels() {
+		return channels.values();
 	}
 
 	/**
-	 * Forces a new random question to start immediately if (and only if) no question is active.
-	 * This skips any remaining cooldown. When the forced round ends, the cooldown restarts normally.
+	 * @return the channel {@code player} is routed to, or null if they are not online
 	 */
-	public boolean forceStartRandomQuestionIfIdle(MinecraftServer server) {
-		TriviaConfig cfg = TriviaConfigManager.getConfig();
-		if (!cfg.enabled) {
-			return false;
-		}
-		if (phase == Phase.ACTIVE && round.activeQuestion != null) {
-			return false;
-		}
+	public TriviaChannel channelOf(ServerPlayerEntity player) {
+		return player == null ? null : members.get(player.getUuid());
+	}
 
-		// Skip remaining cooldown and start immediately.
-		phase = Phase.COOLDOWN;
-		phaseTicksRemaining = 0;
-		startRound(server);
-		return phase == Phase.ACTIVE && round.activeQuestion != null;
+	boolean isSingleChannel() {
+		return channelMode == ChannelMode.GLOBAL;
 	}
 
-	public boolean onPlayerAttempt(ServerPlayerEntity player, String rawMessage) {
-		TriviaConfig cfg = TriviaConfigManager.getConfig();
-		if (!cfg.enabled) {
-			return false;
-		}
-		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
-			return false;
-		}
+	/**
+	 * True if {@code player}'s channel has an open round. Safe to call from the chat thread.
+	 */
+	public boolean isRoundActive(ServerPlayerEntity player) {
+		TriviaChannel channel = channelOf(player);
+		return channel != null && channel.isRoundActive();
+	}
 
-		String prefix = cfg.answerPrefix == null ? "." : cfg.answerPrefix;
-		if (rawMessage == null || rawMessage.length() < prefix.length() || !rawMessage.startsWith(prefix)) {
-			return false;
-		}
+	/**
+	 * Applies an in-memory config change (e.g. from an admin command) without touching disk.
+	 */
+	public void applyConfigChange(TriviaConfig previous, TriviaConfig next) {
+		configReloader.apply(previous, next);
+		appliedConfig = next.copy();
+	}
 
-		String guessDisplay = rawMessage.substring(prefix.length()).stripTrailing();
-		String guessRaw = rawMessage.substring(prefix.length());
-		String guess = normalizeAnswer(guessRaw);
-		if (guess.isEmpty()) {
-			player.sendMessage(Text.literal("Trivia: empty answer."), false);
-			return true;
-		}
+	public void reloadFromDisk() {
+		TriviaConfigManager.loadAll();
+		questionsManager.reload();
+		audience.load();
+		messages.reload();
+		stats.load();
+		// Also resets every channel to a fresh cooldown through the "round" subsystem.
+		configReloader.applyAll(TriviaConfigManager.getConfig());
+		appliedConfig = TriviaConfigManager.getConfig().copy();
+	}
 
-		// Chat shortcut: .hint generates an AI hint (if enabled).
-		if ("hint".equals(guess) || "h".equals(guess)) {
-			return handleHintRequest(player, cfg);
+	/**
+	 * The active answer in {@code player}'s channel, or (for the console) in every active channel.
+	 */
+	public String getActiveAnswerForAdmin(ServerPlayerEntity player) {
+		if (player != null) {
+			TriviaChannel channel = channelOf(player);
+			return channel == null ? null : channel.getActiveAnswerForAdmin();
+		}
+		List<String> answers = new ArrayList<>();
+		for (TriviaChannel channel : channels.values()) {
+			String a = channel.getActiveAnswerForAdmin();
+			if (a != null) {
+				answers.add(isSingleChannel() ? a : channel.getKey() + ": " + a);
+			}
 		}
+		return answers.isEmpty() ? null : String.join(" | ", answers);
+	}
 
-		UUID uuid = player.getUuid();
-		TriviaPlayerState ps = round.playerStates.computeIfAbsent(uuid, id -> new TriviaPlayerState());
-		if (ps.solved) {
-			player.sendMessage(Text.literal("Trivia: you already solved this one."), false);
-			return true;
-		}
-		if (ps.failed) {
-			player.sendMessage(Text.literal("Trivia: you already failed this one."), false);
-			return true;
-		}
-		if (ps.aiValidationPending) {
-			player.sendMessage(Text.literal("Trivia: already checking an answer, please wait..."), false);
-			return true;
+	public void onServerTick(MinecraftServer server) {
+		if (!guessQueue.isEmpty()) {
+			processQueuedGuesses();
 		}
+		scheduler.onTick(server);
+	}
 
-		ps.guessedOnce = true;
-
-		String correctAnswerRaw = round.activeQuestion.answer == null ? "" : round.activeQuestion.answer;
-		boolean correctLocal = AnswerMatcher.isLikelyCorrectLocal(
-			correctAnswerRaw,
-			guessDisplay,
-			cfg.fuzzyAnswerMatching,
-			cfg.fuzzyMaxEditDistance
-		);
-		if (correctLocal) {
-			handleCorrectGuess(player, ps, cfg, correctAnswerRaw);
-			return true;
+	/**
+	 * Applies this tick's guesses in arrival order. Local matching for the whole batch runs up front
+	 * (in parallel for large batches) against the answer each guess was made for.
+	 */
+	private void processQueuedGuesses() {
+		List<TriviaGuessQueue.Guess> batch = guessQueue.drain();
+		if (batch.isEmpty()) {
+			return;
 		}
-
-		if (shouldTryAiValidation(cfg, correctAnswerRaw, guessDisplay)) {
-			ps.aiValidationPending = true;
-			ps.aiValidationRoundId = this.roundId;
-			ps.pendingGuessDisplay = guessDisplay;
-			ps.pendingGuessNormalized = guess;
-			player.sendMessage(Text.literal("Trivia: checking your answer..."), false);
-
-			String question = round.activeQuestion.question;
-			ai.validateAnswer(cfg, question, correctAnswerRaw, guessDisplay)
-				.thenAccept(result -> {
-					MinecraftServer server = player.getServer();
-					if (server == null) {
-						return;
-					}
-					server.execute(() -> finalizeAiValidation(server, player, uuid, result));
-				});
-			return true;
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		boolean[] correct = guessQueue.matchAll(batch, cfg.fuzzyAnswerMatching, cfg.fuzzyMaxEditDistance);
+		for (int i = 0; i < batch.size(); i++) {
+			TriviaGuessQueue.Guess g = batch.get(i);
+			if (g.player().isDisconnected()) {
+				continue;
+			}
+			// The round may close part-way through the batch (early close); later guesses are rejected.
+			if (!g.channel().acceptsGuessFor(g.roundId())) {
+				g.player().sendMessage(messages.text(TriviaMessage.NO_ACTIVE_QUESTION), false);
+				continue;
+			}
+			g.channel().applyAttempt(g.player(), g.rawMessage(), correct[i], g.arrivalNanos(), cfg);
 		}
-
-		handleWrongGuess(player, ps, cfg, guessDisplay);
-		return true;
 	}
 
-	private static String normalizeAnswer(String s) {
-		if (s == null) {
-			return "";
-		}
-		// Trim trailing whitespace only (ending spaces) and ignore capitalization.
-		return s.stripTrailing().toLowerCase(Locale.ROOT);
+	/**
+	 * Pushes this round's leaderboard changes to the scoreboard objective, if one is configured.
+	 */
+	void onRoundRecorded(MinecraftServer server) {
+		leaderboardObjective.sync(server, TriviaConfigManager.getConfig().leaderboardObjective, leaderboard);
 	}
 
-	private boolean handleHintRequest(ServerPlayerEntity player, TriviaConfig cfg) {
-		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
-			player.sendMessage(Text.literal("Trivia: no active question right now."), false);
-			return true;
-		}
-		TriviaPlayerState ps = round.playerStates.computeIfAbsent(player.getUuid(), id -> new TriviaPlayerState());
-		if (!ai.isEnabled(cfg)) {
-			player.sendMessage(Text.literal("Trivia: AI hints are disabled (or API key is missing)."), false);
-			return true;
-		}
-		// Requirement: hints are only available after at least one WRONG guess.
-		if (ps.attemptsUsed <= 0) {
-			player.sendMessage(Text.literal("Trivia: you can only use hints after at least 1 wrong guess."), false);
-			return true;
-		}
-
-		// Global-hint mode: no private hints are allowed.
-		if (cfg.aiHintsGlobalRequireAllPlayers) {
-			MinecraftServer server = player.getServer();
-			if (server == null) {
-				player.sendMessage(Text.literal("Trivia: server unavailable."), false);
-				return true;
-			}
+	public void onServerStarted() {
+		members.clear();
+		channels.values().forEach(TriviaChannel::onServerStarted);
+	}
 
-			if (round.globalHintRevealed) {
-				player.sendMessage(Text.literal("Trivia: global hint already revealed this round."), false);
-				return true;
+	/**
+	 * Aggregates the round journal into question_stats.bin off the server thread, then reloads the
+	 * question stats on the server thread. The running round is not touched.
+	 */
+	public CompletableFuture<TriviaQuestionAnalytics.Summary> analyzeHistory(MinecraftServer server) {
+		return CompletableFuture.supplyAsync(() -> {
+			// Sync the live segment so the scan sees everything written so far.
+			journal.flush();
+			try {
+				return TriviaQuestionAnalytics.run(TriviaJournal.getDir(), TriviaQuestionStats.getPath());
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
 			}
+		}).thenApply(summary -> {
+			server.execute(questionsManager::reloadStats);
+			return summary;
+		});
+	}
 
-			// Only count players who have at least one wrong guess (attemptsUsed > 0).
-			// Players who solved immediately (0 wrong guesses) never become eligible.
-			boolean added = round.globalHintRequesters.add(player.getUuid());
-			if (!added) {
-				player.sendMessage(Text.literal("Trivia: you already requested the global hint."), false);
-				return true;
-			}
+	/**
+	 * Adaptive difficulty summary for /trivia status.
+	 */
+	public String describeAdaptive() {
+		return adaptive.describe(TriviaConfigManager.getConfig());
+	}
 
-			int eligible = computeEligibleGlobalHintCount(server);
-			int requested = computeRequestedEligibleGlobalHintCount(server);
-			if (eligible <= 0) {
-				// Shouldn't happen because requesters are required to have attemptsUsed>0, but keep it safe.
-				player.sendMessage(Text.literal("Trivia: no eligible players for a global hint yet."), false);
-				return true;
-			}
-			server.getPlayerManager().broadcast(
-				Text.literal("Trivia: " + player.getName().getString() + " requested a global hint (" + requested + "/" + eligible + ")."),
-				false
-			);
+	long nextRoundSeed() {
+		return seedSource.nextLong();
+	}
 
-			if (requested < eligible) {
-				return true;
-			}
+	public void onServerStopping() {
+		stats.flush();
+		audience.flush();
+		journal.close();
+		seen.flush();
+		questionsManager.flush();
+	}
 
-			round.globalHintRevealed = true;
-			server.getPlayerManager().broadcast(Text.literal("Trivia: generating a global hint..."), false);
-			String q = round.activeQuestion.question;
-			String a = round.activeQuestion.answer;
-			ai.generateHint(cfg, q, a).thenAccept(hint -> {
-				MinecraftServer srv = player.getServer();
-				if (srv == null) {
-					return;
-				}
-				srv.execute(() -> srv.getPlayerManager().broadcast(Text.literal("Trivia hint: " + hint), false));
-			});
-			return true;
-		}
+	public void onPlayerJoin(ServerPlayerEntity player) {
+		TriviaChannel channel = resolveChannel(player);
+		members.put(player.getUuid(), channel);
+		channel.onPlayerJoin(player);
+	}
 
-		// Default: private hint with per-player cooldown.
-		long now = System.currentTimeMillis();
-		int cooldownSeconds = Math.max(0, cfg.aiHintCooldownSeconds);
-		long cooldownMillis = cooldownSeconds * 1000L;
-		if (ps.lastHintRoundId == this.roundId && cooldownMillis > 0 && (now - ps.lastHintMillis) < cooldownMillis) {
-			long left = (cooldownMillis - (now - ps.lastHintMillis) + 999) / 1000;
-			player.sendMessage(Text.literal("Trivia: hint cooldown: " + left + "s"), false);
-			return true;
+	public void onPlayerLeave(MinecraftServer server, ServerPlayerEntity player) {
+		guessLimiter.remove(player.getId());
+		seen.onPlayerLeave(player.getUuid());
+		TriviaChannel channel = members.remove(player.getUuid());
+		if (channel != null) {
+			channel.onPlayerLeave(server, player);
 		}
-		ps.lastHintMillis = now;
-		ps.lastHintRoundId = this.roundId;
-		player.sendMessage(Text.literal("Trivia: generating hint..."), false);
-		String q = round.activeQuestion.question;
-		String a = round.activeQuestion.answer;
-		ai.generateHint(cfg, q, a).thenAccept(hint -> {
-			MinecraftServer server = player.getServer();
-			if (server == null) {
-				return;
-			}
-			server.execute(() -> player.sendMessage(Text.literal("Trivia hint: " + hint), false));
-		});
-		return true;
 	}
 
-	private static boolean isEligibleForGlobalHint(TriviaPlayerState ps) {
-		if (ps == null) {
-			return false;
+	private TriviaChannel resolveChannel(ServerPlayerEntity player) {
+		String key = channelKey(player);
+		TriviaChannel channel = channels.get(key);
+		if (channel == null) {
+			channel = new TriviaChannel(key, this);
+			channels.put(key, channel);
+			channel.resetToCooldown();
+			TriviaMod.LOGGER.info("Trivia channel opened: {}", key);
 		}
-		// Eligible: at least 1 wrong guess, and still active (not solved, not failed-out).
-		return ps.attemptsUsed > 0 && !ps.solved && !ps.failed;
+		return channel;
 	}
 
-	private int computeEligibleGlobalHintCount(MinecraftServer server) {
-		if (server == null) {
-			return 0;
-		}
-		int eligible = 0;
-		for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
-			TriviaPlayerState ps = round.playerStates.get(p.getUuid());
-			if (isEligibleForGlobalHint(ps)) {
-				eligible++;
+	private String channelKey(ServerPlayerEntity player) {
+		return switch (channelMode) {
+			case GLOBAL -> GLOBAL_CHANNEL;
+			case DIMENSION -> player.getServerWorld().getRegistryKey().getValue().toString();
+			case TEAM -> {
+				Team team = player.getScoreboardTeam();
+				yield team == null ? GLOBAL_CHANNEL : "team:" + team.getName();
 			}
-		}
-		return eligible;
+		};
 	}
 
-	private int computeRequestedEligibleGlobalHintCount(MinecraftServer server) {
-		if (server == null) {
-			return 0;
+	/**
+	 * Moves players whose dimension or team changed. Only runs in per-dimension/per-team mode, or
+	 * once after the mode itself changed.
+	 */
+	private void reconcileMembership(MinecraftServer server) {
+		if (channelMode == ChannelMode.GLOBAL && !membershipDirty) {
+			return;
 		}
-		int requestedEligible = 0;
-		for (ServerPlayerEntity p : server.getPlayerManager().getPlayerList()) {
-			TriviaPlayerState ps = round.playerStates.get(p.getUuid());
-			if (!isEligibleForGlobalHint(ps)) {
+		membershipDirty = false;
+		for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
+			TriviaChannel current = members.get(player.getUuid());
+			if (current != null && current.getKey().equals(channelKey(player))) {
 				continue;
 			}
-			if (round.globalHintRequesters.contains(p.getUuid())) {
-				requestedEligible++;
+			if (current != null) {
+				current.onPlayerLeave(server, player);
 			}
+			onPlayerJoin(player);
 		}
-		return requestedEligible;
 	}
 
-	private void handleCorrectGuess(ServerPlayerEntity player, TriviaPlayerState ps, TriviaConfig cfg, String correctAnswerRaw) {
-		ps.aiValidationPending = false;
-		ps.solved = true;
-		String correctAnswer = correctAnswerRaw == null ? "" : correctAnswerRaw.stripTrailing();
-		TriviaRewarder.RewardResult reward = rewarder.reward(player, rng);
-		if (reward != null) {
-			ps.rewardCount = reward.count();
-			ps.rewardItemName = reward.itemName();
-		}
-		player.sendMessage(Text.literal("Trivia: correct. Answer: " + normalizeAnswer(correctAnswer)), false);
-		if (reward != null) {
-			player.sendMessage(Text.literal("Trivia: reward: " + reward.count() + "x " + reward.itemName()), false);
-		} else {
-			player.sendMessage(Text.literal("Trivia: reward pool is empty."), false);
-		}
-		if (cfg.announceCorrectGuesses) {
-			String suffix = cfg.showAnswerInstructions
-				? " Hint: /trivia announce off, /trivia hint off"
-				: "";
-			player.getServer().getPlayerManager().broadcast(
-				Text.literal("Trivia: " + player.getName().getString() + " guessed correctly!" + suffix),
-				false
-			);
-		}
+	/**
+	 * Periodically folds /trivia add and /trivia remove edits into questions.json (in the background).
+	 */
+	private void onQuestionEditCompaction(MinecraftServer server) {
+		questionsManager.compactEdits();
+		scheduler.scheduleSeconds(QUESTION_EDIT_COMPACT_SECONDS, this::onQuestionEditCompaction);
 	}
 
-	private void handleWrongGuess(ServerPlayerEntity player, TriviaPlayerState ps, TriviaConfig cfg, String guessDisplay) {
-		ps.aiValidationPending = false;
-		ps.guessedOnce = true;
-		ps.attemptsUsed++;
-
-		// Real-time global-hint eligibility counter updates (only when a player becomes eligible).
-		if (cfg.aiHintsGlobalRequireAllPlayers && !round.globalHintRevealed && ps.attemptsUsed == 1) {
-			MinecraftServer server = player.getServer();
-			if (server != null) {
-				int eligible = computeEligibleGlobalHintCount(server);
-				int requested = computeRequestedEligibleGlobalHintCount(server);
-				server.getPlayerManager().broadcast(
-					Text.literal("Trivia: global hint progress (" + requested + "/" + eligible + ") eligible players."),
-					false
-				);
-			}
-		}
-		if (cfg.maxAttempts >= 0 && ps.attemptsUsed >= cfg.maxAttempts) {
-			ps.failed = true;
-			punisher.punish(player, cfg, rng, "max attempts");
-			return;
-		}
-
-		if (cfg.battleModeWrongGuessBroadcast) {
-			String base = cfg.battleModeShowWrongGuesserName
-				? ("Trivia: " + player.getName().getString() + "'s guess of " + guessDisplay + " was wrong.")
-				: ("Trivia: a guess of " + guessDisplay + " was wrong.");
-			String suffix = cfg.showAnswerInstructions
-				? " Hint: /trivia battle name off, /trivia hint off"
-				: "";
-			player.getServer().getPlayerManager().broadcast(Text.literal(base + suffix), false);
-		}
-
-		String triesLeft = (cfg.maxAttempts < 0)
-			? "unlimited"
-			: Integer.toString(Math.max(0, cfg.maxAttempts - ps.attemptsUsed));
-		player.sendMessage(Text.literal("Trivia: wrong. Tries left: " + triesLeft), false);
+	private void onConfigCheck(MinecraftServer server) {
+		reloadConfigIfChanged(server);
+		reconcileMembership(server);
+		scheduler.scheduleSeconds(1, this::onConfigCheck);
 	}
 
-	private boolean shouldTryAiValidation(TriviaConfig cfg, String correctAnswerRaw, String guessDisplay) {
-		if (cfg == null || !cfg.aiSemanticAnswerValidation || !ai.isEnabled(cfg)) {
-			return false;
-		}
-		String correctLoose = AnswerMatcher.normalizeLoose(correctAnswerRaw);
-		String guessLoose = AnswerMatcher.normalizeLoose(guessDisplay);
-		if (correctLoose.isEmpty() || guessLoose.isEmpty()) {
-			return false;
-		}
-		// Only consult AI for "close" guesses to keep API usage sane.
-		int max = Math.max(2, Math.max(cfg.fuzzyMaxEditDistance, 3) + 2);
-		return AnswerMatcher.levenshteinWithin(correctLoose, guessLoose, max);
+	/**
+	 * Forces a new random question to start immediately in {@code player}'s channel (or, for the
+	 * console, in every occupied channel) if no question is active there.
+	 *
+	 * @return true if at least one round was started
+	 */
+	public boolean forceStartRandomQuestionIfIdle(MinecraftServer server, ServerPlayerEntity player) {
+		return forceStartQuestionIfIdle(server, player, -1);
 	}
 
-	private void finalizeAiValidation(MinecraftServer server, ServerPlayerEntity player, UUID uuid, TriviaAiService.AiValidationResult result) {
-		if (server == null || player == null || result == null) {
-			return;
-		}
-		if (phase != Phase.ACTIVE || round.activeQuestion == null) {
-			return;
-		}
-		TriviaPlayerState ps = round.playerStates.get(uuid);
-		if (ps == null || !ps.aiValidationPending || ps.aiValidationRoundId != this.roundId) {
-			return;
+	/**
+	 * Like {@link #forceStartRandomQuestionIfIdle} but asks the question at bank {@code index}
+	 * (-1 for a normal pick).
+	 */
+	public boolean forceStartQuestionIfIdle(MinecraftServer server, ServerPlayerEntity player, int index) {
+		TriviaConfig cfg = TriviaConfigManager.getConfig();
+		if (!cfg.enabled) {
+			return false;
 		}
-		ps.aiValidationPending = false;
-
-		// Player might have solved/failed via another path while we waited.
-		if (ps.solved || ps.failed) {
-			return;
+		if (player != null) {
+			TriviaChannel channel = channelOf(player);
+			return channel != null && channel.forceStartQuestionIfIdle(server, index);
 		}
-
-		TriviaConfig cfg = TriviaConfigManager.getConfig();
-		String correctAnswerRaw = round.activeQuestion.answer;
-		if (result.isCorrect()) {
-			handleCorrectGuess(player, ps, cfg, correctAnswerRaw);
-			return;
+		boolean started = false;
+		for (TriviaChannel channel : channels.values()) {
+			if (channel.getOnlinePlayers() > 0 && channel.forceStartQuestionIfIdle(server, index)) {
+				started = true;
+			}
 		}
-
-		handleWrongGuess(player, ps, cfg, ps.pendingGuessDisplay == null ? "" : ps.pendingGuessDisplay);
+		return started;
 	}
 
-	private void startRound(MinecraftServer server) {
-		List<TriviaQuestion> qs = questionsManager.getQuestions();
-		if (qs.isEmpty()) {
-			// Try again later.
-			phase = Phase.COOLDOWN;
-			phaseTicksRemaining = 20L * 60;
-			return;
-		}
-
+	/**
+	 * Accepts a chat attempt for processing at the end of the tick.
+	 *
+	 * @return true if the message is a trivia attempt for the active round (and should be hidden from chat)
+	 */
+	public boolean onPlayerAttempt(ServerPlayerEntity player, String rawMessage) {
 		TriviaConfig cfg = TriviaConfigManager.getConfig();
-		round = new TriviaRoundState();
-		round.activeQuestion = pickRandomQuestionWithHistory(qs);
-		this.roundId++;
-		phase = Phase.ACTIVE;
-		phaseTicksRemaining = Math.max(20, (long) cfg.questionDurationSeconds * 20L);
-
-		String q = round.activeQuestion.question;
-		server.getPlayerManager().broadcast(Text.literal("Trivia: " + q), false);
-		if (cfg.showAnswerInstructions) {
-			String triesText = (cfg.maxAttempts < 0) ? "unlimited" : Integer.toString(cfg.maxAttempts);
-			String hintInfo = cfg.aiHintsGlobalRequireAllPlayers
-				? "Hint: after 1+ wrong guess, all eligible players must type " + cfg.answerPrefix + "hint for 1 global hint"
-				: "Hint: after 1+ wrong guess, type " + cfg.answerPrefix + "hint (AI must be enabled)";
-			server.getPlayerManager().broadcast(
-				Text.literal(
-					"Answer with " + cfg.answerPrefix + "<answer> (tries: " + triesText + ", time: " + cfg.questionDurationSeconds + "s)"
-						+ " | " + hintInfo
-						+ " | Admin: /trivia hint off hides hint lines"
-						+ ", /trivia battle off disables wrong-guess broadcasts"
-						+ ", /trivia battle name off hides the guesser name"
-						+ ", /trivia announce off hides correct-guess broadcasts"
-						+ ", /trivia disable stops trivia"
-				),
-				false
-			);
+		if (!cfg.enabled) {
+			return false;
 		}
-	}
-
-	private TriviaQuestion pickRandomQuestionWithHistory(List<TriviaQuestion> qs) {
-		if (qs == null || qs.isEmpty()) {
-			return null;
+		TriviaChannel channel = channelOf(player);
+		if (channel == null || !channel.isRoundActive()) {
+			return false;
 		}
 
-		int window = Math.max(0, Math.min(QUESTION_NO_REPEAT_WINDOW, qs.size() - 1));
-		if (window <= 0 || recentQuestionKeySet.isEmpty()) {
-			TriviaQuestion picked = qs.get(rng.nextInt(qs.size()));
-			recordPickedQuestion(picked, window);
-			return picked;
+		String prefix = cfg.answerPrefix == null ? "." : cfg.answerPrefix;
+		if (rawMessage == null || rawMessage.length() < prefix.length() || !rawMessage.startsWith(prefix)) {
+			return false;
 		}
 
-		List<TriviaQuestion> candidates = null;
-		for (TriviaQuestion q : qs) {
-			String key = questionKey(q);
-			if (key.isEmpty() || !recentQuestionKeySet.contains(key)) {
-				if (candidates == null) {
-					candidates = new java.util.ArrayList<>();
-				}
-				candidates.add(q);
+		// Shed spam before any normalization or matching work.
+		long now = System.nanoTime();
+		if (!guessLimiter.tryAcquire(player.getId(), now)) {
+			if (guessLimiter.shouldNotify(player.getId(), now)) {
+				player.sendMessage(messages.text(TriviaMessage.RATE_LIMITED), false);
 			}
+			return true;
 		}
 
-		TriviaQuestion picked;
-		if (candidates == null || candidates.isEmpty()) {
-			// Not enough unique questions to satisfy the window; fall back to any question.
-			picked = qs.get(rng.nextInt(qs.size()));
-		} else {
-			picked = candidates.get(rng.nextInt(candidates.size()));
-		}
-		recordPickedQuestion(picked, window);
-		return picked;
+		guessQueue.offer(
+			player,
+			channel,
+			channel.getRoundId(),
+			channel.getActiveAnswers(),
+			rawMessage,
+			rawMessage.substring(prefix.length()).stripTrailing()
+		);
+		return true;
 	}
 
-	private void recordPickedQuestion(TriviaQuestion q, int window) {
-		if (q == null) {
-			return;
-		}
-		String key = questionKey(q);
-		if (key.isEmpty()) {
-			return;
-		}
-		recentQuestionKeys.addLast(key);
-		recentQuestionKeySet.add(key);
-		while (recentQuestionKeys.size() > window) {
-			String removed = recentQuestionKeys.removeFirst();
-			recentQuestionKeySet.remove(removed);
+	/**
+	 * The instruction line depends on config and the round's time limit, so it is rendered once per
+	 * config change and again only when a round's limit differs (adaptive difficulty, speed rounds).
+	 */
+	Text instructionLine(TriviaConfig cfg, int durationSeconds) {
+		if (instructionLine == null || instructionLineSeconds != durationSeconds) {
+			renderInstructionLine(cfg, durationSeconds);
 		}
+		return instructionLine;
 	}
 
-	private static String questionKey(TriviaQuestion q) {
-		if (q == null) {
-			return "";
-		}
-		String question = q.question == null ? "" : q.question.stripTrailing();
-		String answer = q.answer == null ? "" : q.answer.stripTrailing();
-		if (question.isBlank()) {
-			return "";
-		}
-		return question + "\n" + answer;
+	private void rebuildCachedMessages(TriviaConfig cfg) {
+		renderInstructionLine(cfg, cfg.questionDurationSeconds);
 	}
 
-	private void endRound(MinecraftServer server) {
-		TriviaConfig cfg = TriviaConfigManager.getConfig();
-		String answer = (round.activeQuestion != null && round.activeQuestion.answer != null)
-			? round.activeQuestion.answer.stripTrailing()
-			: "";
-
-		// Winner summary (rewards are granted immediately on correct guess).
-		List<String> winners = new java.util.ArrayList<>();
-		for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-			TriviaPlayerState ps = round.playerStates.get(player.getUuid());
-			if (ps == null || !ps.solved) {
-				continue;
-			}
-			String rewardText = (ps.rewardItemName != null && !ps.rewardItemName.isBlank() && ps.rewardCount > 0)
-				? (ps.rewardCount + "x " + ps.rewardItemName)
-				: "reward";
-			winners.add(player.getName().getString() + " (" + rewardText + ")");
-		}
-
-		// Apply timeout punishments
-		for (ServerPlayerEntity player : server.getPlayerManager().getPlayerList()) {
-			TriviaPlayerState ps = round.playerStates.get(player.getUuid());
-			if (ps == null) {
-				continue;
-			}
-			if (ps.solved || ps.failed) {
-				continue;
-			}
-			if (!ps.guessedOnce) {
-				continue;
-			}
-			ps.failed = true;
-			punisher.punish(player, cfg, rng, "time limit");
-		}
-
-		server.getPlayerManager().broadcast(Text.literal("Trivia: time is up. Answer: " + answer), false);
-		if (!winners.isEmpty()) {
-			server.getPlayerManager().broadcast(Text.literal("Trivia: winners: " + String.join(", ", winners)), false);
-		} else {
-			server.getPlayerManager().broadcast(Text.literal("Trivia: nobody guessed correctly."), false);
-		}
-		resetToCooldown();
+	private void renderInstructionLine(TriviaConfig cfg, int durationSeconds) {
+		String triesText = (cfg.maxAttempts < 0) ? messages.format(TriviaMessage.UNLIMITED) : Integer.toString(cfg.maxAttempts);
+		String hintInfo = cfg.aiHintsGlobalRequireAllPlayers
+			? messages.format(TriviaMessage.INSTRUCTIONS_HINT_GLOBAL, cfg.answerPrefix)
+			: messages.format(TriviaMessage.INSTRUCTIONS_HINT_PRIVATE, cfg.answerPrefix);
+		instructionLine = messages.text(TriviaMessage.INSTRUCTIONS, cfg.answerPrefix, triesText, durationSeconds, hintInfo);
+		instructionLineSeconds = durationSeconds;
 	}
 
-	private void resetToCooldown() {
-		TriviaConfig cfg = TriviaConfigManager.getConfig();
-		phase = Phase.COOLDOWN;
-		phaseTicksRemaining = Math.max(20, (long) cfg.cooldownSeconds * 20L);
-		round = new TriviaRoundState();
-		TriviaMod.LOGGER.info("Trivia cooldown started: {}s", cfg.cooldownSeconds);
+	private void onScheduleConfigChanged(TriviaConfig cfg) {
+		scheduler.setClock(TriviaScheduler.Clock.parse(cfg.schedulerClock));
+		for (TriviaChannel channel : channels.values()) {
+			channel.onCooldownConfigChanged(cfg);
+		}
 	}
 
 	private void reloadConfigIfChanged(MinecraftServer server) {
-		configCheckTicker++;
-		if ((configCheckTicker % 20) != 0) {
-			return;
-		}
 		Path settings = TriviaConfigManager.getSettingsPath();
 		try {
 			if (Files.notExists(settings)) {
@@ -607,13 +506,17 @@ public final class TriviaGame {
 				return;
 			}
 			configLastModifiedMillis = m;
+			if (TriviaConfigManager.isOwnWrite(m)) {
+				// Our own save; the in-memory config is already current.
+				return;
+			}
 			TriviaConfigManager.loadAll();
-			TriviaConfig cfg = TriviaConfigManager.getConfig();
-			rewarder.rebuildPools(cfg);
-			punisher.rebuildPools();
-			TriviaMod.LOGGER.info("Trivia settings.json changed; config auto-reloaded.");
+			TriviaConfig next = TriviaConfigManager.getConfig();
+			Set<String> changed = configReloader.apply(appliedConfig, next);
+			appliedConfig = next.copy();
+			TriviaMod.LOGGER.info("Trivia settings.json changed; config auto-reloaded (changed: {}).", changed);
 		} catch (Exception e) {
 			TriviaMod.LOGGER.warn("Trivia config auto-reload failed: {}", e.getMessage());
 		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,101 @@
+package mod.trivia.game;
+
+import mod.trivia.util.AnswerMatcher;
+import net.minecraft.server.network.ServerPlayerEntity;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.IntStream;
+
+/**
+ * Lock-free queue of chat guesses, drained once per server tick.
+ *
+ * Large batches (e.g. right after a question is broadcast on a busy server) are fuzzy-matched in
+ * parallel on the common fork-join pool; outcomes are still applied on the server thread in arrival
+ * order so "first correct" stays deterministic.
+ */
+final class TriviaGuessQueue {
+	/**
+	 * Below this batch size the fork-join overhead outweighs the matching work.
+	 */
+	private static final int PARALLEL_MATCH_THRESHOLD = 32;
+
+	/**
+	 * @param answers the channel's answer and aliases when the guess was made; matching runs against this snapshot
+	 */
+	record Guess(
+		ServerPlayerEntity player,
+		TriviaChannel channel,
+		long roundId,
+		List<String> answers,
+		String rawMessage,
+		String guessDisplay,
+		long arrivalNanos
+	) {
+	}
+
+	private static final Comparator<Guess> BY_ARRIVAL = Comparator.comparingLong(Guess::arrivalNanos);
+
+	private final ConcurrentLinkedQueue<Guess> pending = new ConcurrentLinkedQueue<>();
+	// Server-thread scratch space, reused every tick so steady-state draining does not allocate.
+	private final List<Guess> batch = new ArrayList<>();
+	private boolean[] results = new boolean[64];
+
+	void offer(ServerPlayerEntity player, TriviaChannel channel, long roundId, List<String> answers, String rawMessage, String guessDisplay) {
+		pending.add(new Guess(player, channel, roundId, answers, rawMessage, guessDisplay, System.nanoTime()));
+	}
+
+	boolean isEmpty() {
+		return pending.isEmpty();
+	}
+
+	/**
+	 * Removes every queued guess, ordered by arrival time.
+	 *
+	 * The returned list is reused by the next drain; it is only valid until then.
+	 */
+	List<Guess> drain() {
+		batch.clear();
+		Guess g;
+		while ((g = pending.poll()) != null) {
+			batch.add(g);
+		}
+		if (batch.size() > 1) {
+			batch.sort(BY_ARRIVAL);
+		}
+		return batch;
+	}
+
+	/**
+	 * Local (non-AI) match result for each guess against the answer of the round it was made in.
+	 *
+	 * The returned array is reused by the next call and may be longer than {@code batch}.
+	 */
+	boolean[] matchAll(List<Guess> batch, boolean fuzzy, int maxEditDistance) {
+		int n = batch.size();
+		if (results.length < n) {
+			results = new boolean[Math.max(n, results.length * 2)];
+		}
+		boolean[] out = results;
+		if (n < PARALLEL_MATCH_THRESHOLD) {
+			for (int i = 0; i < n; i++) {
+				Guess g = batch.get(i);
+				out[i] = AnswerMatcher.isLikelyCorrectLocal(g.answers(), g.guessDisplay(), fuzzy, maxEditDistance);
+			}
+			return out;
+		}
+		IntStream.range(0, n).parallel().forEach(i -> out[i] = AnswerMatcher.isLikelyCorrectLocal(
+			batch.get(i).answers(),
+			batch.get(i).guessDisplay(),
+			fuzzy,
+			maxEditDistance
+		));
+		return out;
+	}
+
+	void clear() {
+		pending.clear();
+	}
+}
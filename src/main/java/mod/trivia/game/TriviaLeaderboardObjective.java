@@ -0,0 +1,63 @@
+package mod.trivia.game;
+
+import mod.trivia.TriviaMod;
+import mod.trivia.stats.TriviaLeaderboard;
+import net.minecraft.scoreboard.ScoreHolder;
+import net.minecraft.scoreboard.ScoreboardCriterion;
+import net.minecraft.scoreboard.ScoreboardObjective;
+import net.minecraft.scoreboard.ServerScoreboard;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.text.Text;
+
+/**
+ * Mirrors all-time solves into a vanilla scoreboard objective.
+ *
+ * Called once per round end; only players whose totals changed since the previous call are written,
+ * so each score update (and the packet it sends) happens at most once per round.
+ */
+final class TriviaLeaderboardObjective {
+	private String failedName;
+
+	void sync(MinecraftServer server, String objectiveName, TriviaLeaderboard leaderboard) {
+		if (objectiveName == null || objectiveName.isBlank()) {
+			// Disabled: still drain, so enabling it later does not replay stale entries on top of the full resync.
+			leaderboard.drainChanged(s -> {
+			});
+			return;
+		}
+		ServerScoreboard scoreboard = server.getScoreboard();
+		ScoreboardObjective objective = objectiveOrCreate(scoreboard, objectiveName.trim());
+		if (objective == null) {
+			return;
+		}
+		leaderboard.drainChanged(s -> {
+			if (s.lastName != null && !s.lastName.isEmpty()) {
+				scoreboard.getOrCreateScore(ScoreHolder.fromName(s.lastName), objective).setScore(s.solves);
+			}
+		});
+	}
+
+	private ScoreboardObjective objectiveOrCreate(ServerScoreboard scoreboard, String name) {
+		ScoreboardObjective objective = scoreboard.getNullableObjective(name);
+		if (objective != null) {
+			return objective;
+		}
+		try {
+			return scoreboard.addObjective(
+				name,
+				ScoreboardCriterion.DUMMY,
+				Text.literal("Trivia"),
+				ScoreboardCriterion.RenderType.INTEGER,
+				true,
+				null
+			);
+		} catch (RuntimeException e) {
+			// Log once per bad name rather than every round.
+			if (!name.equals(failedName)) {
+				failedName = name;
+				TriviaMod.LOGGER.warn("Trivia: cannot create scoreboard objective '{}': {}", name, e.getMessage());
+			}
+			return null;
+		}
+	}
+}
@@ -1,6 +1,14 @@
 package mod.trivia.game;
 
+import java.util.UUID;
+
+/**
+ * Round-scoped state for one player. Instances are owned and recycled by {@link TriviaPlayerTable};
+ * do not keep references across rounds.
+ */
 public final class TriviaPlayerState {
+	public UUID playerId;
+
 	public int attemptsUsed;
 	public boolean guessedOnce;
 	public boolean solved;
@@ -12,7 +20,34 @@ public final class TriviaPlayerState {
 	public long aiValidationRoundId;
 	public String pendingGuessDisplay;
 	public String pendingGuessNormalized;
+	public long pendingGuessNanos;
 
 	public long lastHintMillis;
 	public long lastHintRoundId;
-}
\ No newline at end of file
+	public boolean globalHintRequested;
+	public int hintsUsed;
+	public long solveMillis;
+
+	boolean touched;
+	boolean released;
+
+	void reset() {
+		attemptsUsed = 0;
+		guessedOnce = false;
+		solved = false;
+		failed = false;
+		rewardCount = 0;
+		rewardItemName = null;
+		aiValidationPending = false;
+		aiValidationRoundId = 0;
+		pendingGuessDisplay = null;
+		pendingGuessNormalized = null;
+		pendingGuessNanos = 0;
+		lastHintMillis = 0;
+		lastHintRoundId = 0;
+		globalHintRequested = false;
+		hintsUsed = 0;
+		solveMillis = 0;
+		touched = false;
+	}
+}
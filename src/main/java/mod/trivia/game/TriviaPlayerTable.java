@@ -0,0 +1,118 @@
+package mod.trivia.game;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Per-player round state that survives across rounds.
+ *
+ * Each player keeps one {@link TriviaPlayerState} for the session; a round only marks the states it
+ * touches, and {@link #clear()} resets just those. Steady-state rounds therefore allocate no maps or
+ * state objects. States of players that left are recycled through a small pool.
+ */
+public final class TriviaPlayerTable {
+	private static final int MAX_POOLED = 256;
+
+	private final Map<UUID, TriviaPlayerState> states = new HashMap<>();
+	private final List<TriviaPlayerState> touched = new ArrayList<>();
+	private final ArrayDeque<TriviaPlayerState> pool = new ArrayDeque<>();
+	private long allocated;
+
+	/**
+	 * @return the player's state if they interacted with the current round, otherwise null
+	 */
+	public TriviaPlayerState get(UUID player) {
+		TriviaPlayerState ps = states.get(player);
+		return (ps != null && ps.touched) ? ps : null;
+	}
+
+	public TriviaPlayerState getOrCreate(UUID player) {
+		TriviaPlayerState ps = states.get(player);
+		if (ps == null) {
+			ps = pool.poll();
+			if (ps == null) {
+				ps = new TriviaPlayerState();
+				allocated++;
+			}
+			ps.playerId = player;
+			ps.released = false;
+			states.put(player, ps);
+		}
+		if (!ps.touched) {
+			ps.touched = true;
+			touched.add(ps);
+		}
+		return ps;
+	}
+
+	/**
+	 * Players that interacted with the current round, in first-touch order.
+	 */
+	public int touchedCount() {
+		return touched.size();
+	}
+
+	public TriviaPlayerState touched(int index) {
+		return touched.get(index);
+	}
+
+	/**
+	 * Call when a player disconnects. Their state stays readable until the round ends.
+	 */
+	public void release(UUID player) {
+		TriviaPlayerState ps = states.get(player);
+		if (ps == null) {
+			return;
+		}
+		if (ps.touched) {
+			ps.released = true;
+		} else {
+			recycle(ps);
+		}
+	}
+
+	/**
+	 * Call when a player (re)joins, so a pending release from this round is cancelled.
+	 */
+	public void retain(UUID player) {
+		TriviaPlayerState ps = states.get(player);
+		if (ps != null) {
+			ps.released = false;
+		}
+	}
+
+	/**
+	 * Resets the states touched this round. O(touched), not O(players seen).
+	 */
+	public void clear() {
+		for (int i = 0; i < touched.size(); i++) {
+			TriviaPlayerState ps = touched.get(i);
+			ps.reset();
+			if (ps.released) {
+				recycle(ps);
+			}
+		}
+		touched.clear();
+	}
+
+	/**
+	 * Total state objects created so far; flat across rounds once the player base is warm.
+	 */
+	public long allocatedStates() {
+		return allocated;
+	}
+
+	private void recycle(TriviaPlayerState ps) {
+		states.remove(ps.playerId);
+		ps.reset();
+		ps.playerId = null;
+		ps.released = false;
+		if (pool.size() < MAX_POOLED) {
+			pool.push(ps);
+		}
+	}
+}
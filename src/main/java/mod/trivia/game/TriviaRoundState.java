@@ -4,15 +4,57 @@ import mod.trivia.questions.TriviaQuestion;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.HashSet;
-import java.util.Set;
-import java.util.UUID;
 
+/**
+ * State of the current round. One instance lives for the whole session and is {@link #reset()}
+ * between rounds instead of being reallocated.
+ */
 public final class TriviaRoundState {
 	public TriviaQuestion activeQuestion;
-	public long ticksRemaining;
-	public final Map<UUID, TriviaPlayerState> playerStates = new HashMap<>();
+	/**
+	 * Bank index of activeQuestion, valid while the bank version still equals {@code bankVersion}.
+	 */
+	public int activeQuestionIndex = -1;
+	public int bankVersion;
+	public long startedNanos;
+	public final TriviaPlayerTable players = new TriviaPlayerTable();
+
+	/**
+	 * Team play: one record per scoreboard team, keyed by team name. Kept across rounds for the score.
+	 */
+	public final Map<String, TriviaTeamState> teams = new HashMap<>();
 
-	public final Set<UUID> globalHintRequesters = new HashSet<>();
 	public boolean globalHintRevealed;
-}
\ No newline at end of file
+
+	/**
+	 * Online players currently eligible for the global hint, and how many of those requested it.
+	 * Maintained incrementally on state transitions so progress checks never rescan the server.
+	 */
+	public int hintEligible;
+	public int hintRequestedEligible;
+
+	/**
+	 * Online players that solved or failed this round (kept in sync on join/leave).
+	 */
+	public int finishedOnline;
+
+	/**
+	 * Players that made at least one guess this round.
+	 */
+	public int participants;
+
+	public void reset() {
+		activeQuestion = null;
+		activeQuestionIndex = -1;
+		startedNanos = 0;
+		players.clear();
+		for (TriviaTeamState team : teams.values()) {
+			team.resetRound();
+		}
+		globalHintRevealed = false;
+		hintEligible = 0;
+		hintRequestedEligible = 0;
+		finishedOnline = 0;
+		participants = 0;
+	}
+}
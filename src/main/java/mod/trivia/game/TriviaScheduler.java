@@ -0,0 +1,131 @@
+package mod.trivia.game;
+
+import net.minecraft.server.MinecraftServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Deadline-based timer queue driven from the server tick.
+ *
+ * Timers store an absolute deadline on a monotonic clock, so the per-tick cost is one comparison
+ * against the earliest deadline. Two clocks are supported:
+ * <ul>
+ *   <li>{@link Clock#WALL}: {@link System#nanoTime()}; durations hold even when the server lags.</li>
+ *   <li>{@link Clock#TICK}: server ticks (50 ms each); durations stretch with low TPS (legacy behavior).</li>
+ * </ul>
+ */
+final class TriviaScheduler {
+	static final long NANOS_PER_TICK = 50_000_000L;
+	static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	enum Clock {
+		TICK,
+		WALL;
+
+		static Clock parse(String raw) {
+			if (raw != null && "tick".equals(raw.strip().toLowerCase(Locale.ROOT))) {
+				return TICK;
+			}
+			return WALL;
+		}
+	}
+
+	static final class Timer {
+		private final Consumer<MinecraftServer> action;
+		private long deadline;
+		private boolean cancelled;
+
+		private Timer(long deadline, Consumer<MinecraftServer> action) {
+			this.deadline = deadline;
+			this.action = action;
+		}
+	}
+
+	private final PriorityQueue<Timer> timers = new PriorityQueue<>((a, b) -> Long.compare(a.deadline, b.deadline));
+	private Clock clock = Clock.WALL;
+	private long ticks;
+	private long nextDeadline = Long.MAX_VALUE;
+
+	/**
+	 * Advances the tick clock and fires every timer whose deadline has passed.
+	 */
+	void onTick(MinecraftServer server) {
+		ticks++;
+		if (now() < nextDeadline) {
+			return;
+		}
+		runDue(server);
+	}
+
+	Timer schedule(long delayNanos, Consumer<MinecraftServer> action) {
+		Timer t = new Timer(now() + Math.max(0, delayNanos), action);
+		timers.add(t);
+		nextDeadline = Math.min(nextDeadline, t.deadline);
+		return t;
+	}
+
+	Timer scheduleSeconds(long seconds, Consumer<MinecraftServer> action) {
+		return schedule(seconds * NANOS_PER_SECOND, action);
+	}
+
+	void cancel(Timer t) {
+		if (t == null || t.cancelled) {
+			return;
+		}
+		t.cancelled = true;
+		timers.remove(t);
+		refreshNextDeadline();
+	}
+
+	/**
+	 * Remaining time before {@code t} fires, or 0 if it is cancelled/done.
+	 */
+	long remainingNanos(Timer t) {
+		if (t == null || t.cancelled) {
+			return 0;
+		}
+		return Math.max(0, t.deadline - now());
+	}
+
+	/**
+	 * Switches clock, keeping every pending timer's remaining duration.
+	 */
+	void setClock(Clock next) {
+		if (next == null || next == clock) {
+			return;
+		}
+		long oldNow = now();
+		List<Timer> pending = new ArrayList<>(timers);
+		timers.clear();
+		clock = next;
+		long newNow = now();
+		for (Timer t : pending) {
+			t.deadline = newNow + Math.max(0, t.deadline - oldNow);
+			timers.add(t);
+		}
+		refreshNextDeadline();
+	}
+
+	private long now() {
+		return clock == Clock.TICK ? ticks * NANOS_PER_TICK : System.nanoTime();
+	}
+
+	private void runDue(MinecraftServer server) {
+		long now = now();
+		while (!timers.isEmpty() && timers.peek().deadline <= now) {
+			Timer t = timers.poll();
+			t.cancelled = true;
+			t.action.accept(server);
+		}
+		refreshNextDeadline();
+	}
+
+	private void refreshNextDeadline() {
+		Timer head = timers.peek();
+		nextDeadline = head == null ? Long.MAX_VALUE : head.deadline;
+	}
+}
@@ -0,0 +1,129 @@
+package mod.trivia.game;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Scoring and time-to-answer histograms for a speed-round burst.
+ *
+ * Response times are nanoTime deltas from the question broadcast to the guess arriving on the chat
+ * thread, so server tick timing does not skew them. Histograms are fixed bucket arrays; recording
+ * allocates nothing beyond one score entry per player per burst.
+ */
+final class TriviaSpeedStats {
+	private static final long[] BUCKET_UPPER_MILLIS = {500, 1000, 2000, 3000, 5000, 10000, Long.MAX_VALUE};
+	private static final String[] BUCKET_LABELS = {"<0.5s", "<1s", "<2s", "<3s", "<5s", "<10s", "10s+"};
+	private static final int MAX_POINTS = 100;
+	private static final int MIN_POINTS = 10;
+
+	private static final class Score {
+		private String name;
+		private int points;
+		private int answers;
+		private long bestNanos = Long.MAX_VALUE;
+	}
+
+	private final long[] questionBuckets = new long[BUCKET_UPPER_MILLIS.length];
+	private final long[] burstBuckets = new long[BUCKET_UPPER_MILLIS.length];
+	private final Map<UUID, Score> scores = new HashMap<>();
+	private long questionStartNanos;
+	private long questionDurationNanos;
+
+	void beginBurst() {
+		scores.clear();
+		Arrays.fill(burstBuckets, 0);
+	}
+
+	void beginQuestion(long startNanos, long durationNanos) {
+		questionStartNanos = startNanos;
+		questionDurationNanos = Math.max(1, durationNanos);
+		Arrays.fill(questionBuckets, 0);
+	}
+
+	long elapsedNanos(long arrivalNanos) {
+		return Math.max(0, arrivalNanos - questionStartNanos);
+	}
+
+	/**
+	 * Records a correct answer that arrived at {@code arrivalNanos}.
+	 *
+	 * @return points awarded: MAX_POINTS for an instant answer, falling linearly to MIN_POINTS at the deadline
+	 */
+	int recordCorrect(UUID player, String name, long arrivalNanos) {
+		long elapsed = elapsedNanos(arrivalNanos);
+		int bucket = bucketOf(elapsed / 1_000_000L);
+		questionBuckets[bucket]++;
+		burstBuckets[bucket]++;
+
+		long left = Math.max(0, questionDurationNanos - elapsed);
+		int points = MIN_POINTS + (int) ((MAX_POINTS - MIN_POINTS) * left / questionDurationNanos);
+		Score s = scores.computeIfAbsent(player, id -> new Score());
+		s.name = name;
+		s.points += points;
+		s.answers++;
+		s.bestNanos = Math.min(s.bestNanos, elapsed);
+		return points;
+	}
+
+	String questionHistogram() {
+		return format(questionBuckets);
+	}
+
+	String burstHistogram() {
+		return format(burstBuckets);
+	}
+
+	boolean hasScores() {
+		return !scores.isEmpty();
+	}
+
+	/**
+	 * Top {@code limit} players by points (ties broken by best single answer time).
+	 */
+	String topScores(int limit) {
+		List<Score> sorted = new ArrayList<>(scores.values());
+		sorted.sort((a, b) -> a.points != b.points ? Integer.compare(b.points, a.points) : Long.compare(a.bestNanos, b.bestNanos));
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < Math.min(limit, sorted.size()); i++) {
+			Score s = sorted.get(i);
+			if (i > 0) {
+				sb.append(", ");
+			}
+			sb.append(i + 1).append(". ").append(s.name).append(" ").append(s.points)
+				.append(" (").append(s.answers).append(" correct, best ").append(formatSeconds(s.bestNanos)).append("s)");
+		}
+		return sb.toString();
+	}
+
+	static String formatSeconds(long nanos) {
+		long centis = nanos / 10_000_000L;
+		return (centis / 100) + "." + ((centis % 100) < 10 ? "0" : "") + (centis % 100);
+	}
+
+	private static int bucketOf(long millis) {
+		for (int i = 0; i < BUCKET_UPPER_MILLIS.length; i++) {
+			if (millis < BUCKET_UPPER_MILLIS[i]) {
+				return i;
+			}
+		}
+		return BUCKET_UPPER_MILLIS.length - 1;
+	}
+
+	private static String format(long[] buckets) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < buckets.length; i++) {
+			if (buckets[i] == 0) {
+				continue;
+			}
+			if (sb.length() > 0) {
+				sb.append(" ");
+			}
+			sb.append(BUCKET_LABELS[i]).append(':').append(buckets[i]);
+		}
+		return sb.length() == 0 ? "-" : sb.toString();
+	}
+}
@@ -0,0 +1,27 @@
+package mod.trivia.game;
+
+/**
+ * Aggregated state for one scoreboard team in team play. Per-round fields are reset between rounds;
+ * {@link #score} accumulates for as long as the channel runs.
+ */
+public final class TriviaTeamState {
+	public final String teamName;
+
+	public boolean solved;
+	public boolean failed;
+	public int attemptsUsed;
+	public String solvedBy;
+
+	public int score;
+
+	public TriviaTeamState(String teamName) {
+		this.teamName = teamName;
+	}
+
+	void resetRound() {
+		solved = false;
+		failed = false;
+		attemptsUsed = 0;
+		solvedBy = null;
+	}
+}
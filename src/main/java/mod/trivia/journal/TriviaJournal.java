@@ -0,0 +1,267 @@
+package mod.trivia.journal;
+
+import mod.trivia.TriviaMod;
+import mod.trivia.config.TriviaConfig;
+import mod.trivia.config.TriviaConfigManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Structured, append-only journal of round events under config/trivia/journal/.
+ *
+ * The server thread only hands entries to a background writer, which serializes them into a
+ * memory-mapped segment file of fixed size. A full segment is closed and the next one started; the
+ * oldest segments are deleted beyond roundJournalMaxSegments. On the first entry after startup (or
+ * after the journal was closed), the newest segment is reopened and appended to if it has room, so
+ * restarts do not each use up a segment.
+ *
+ * Segment layout: MAGIC, version, sequence number, creation time (a 24-byte header), then records of
+ * [int length][entry], terminated by a zero length.
+ */
+public final class TriviaJournal {
+	static final int MAGIC = 0x544A524E; // "TJRN"
+	static final int VERSION = 1;
+	static final int HEADER_BYTES = 24;
+	private static final int SEGMENT_BYTES = 4 << 20;
+	private static final String SEGMENT_PREFIX = "journal-";
+	private static final String SEGMENT_SUFFIX = ".tjr";
+	// Below this much free space, a reopened segment is left alone and a new one started.
+	private static final int REOPEN_MIN_FREE = 64 << 10;
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "trivia-journal-writer");
+		t.setDaemon(true);
+		return t;
+	});
+	private volatile boolean enabled;
+
+	// Writer-thread state.
+	private final ByteBuffer scratch = ByteBuffer.allocate(64 << 10);
+	private FileChannel segment;
+	private MappedByteBuffer map;
+	private long nextSequence = -1;
+	private int maxSegments;
+	private boolean failed;
+
+	public static Path getDir() {
+		return TriviaConfigManager.getConfigDir().resolve("journal");
+	}
+
+	public void configure(TriviaConfig cfg) {
+		boolean on = cfg.roundJournal;
+		int keep = Math.max(0, cfg.roundJournalMaxSegments);
+		enabled = on;
+		writer.execute(() -> {
+			maxSegments = keep;
+			failed = false;
+			if (!on) {
+				closeSegment();
+			}
+		});
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Queues {@code entry} for the writer. Cheap no-op while the journal is off.
+	 */
+	public void append(TriviaJournalEntry entry) {
+		if (!enabled) {
+			return;
+		}
+		writer.execute(() -> write(entry));
+	}
+
+	/**
+	 * Writes out queued entries and syncs the live segment (bounded wait), e.g. before reading the
+	 * journal back. The segment stays open.
+	 */
+	public void flush() {
+		await(() -> {
+			if (map != null) {
+				map.force();
+			}
+		});
+	}
+
+	/**
+	 * Like {@link #flush()}, but also closes the live segment, e.g. on server shutdown. The next entry
+	 * reopens it.
+	 */
+	public void close() {
+		await(this::closeSegment);
+	}
+
+	private void await(Runnable task) {
+		try {
+			writer.submit(task).get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			TriviaMod.LOGGER.warn("Trivia: journal flush did not finish: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Segment files in {@code dir}, oldest first.
+	 */
+	public static List<Path> segments(Path dir) throws IOException {
+		if (Files.notExists(dir)) {
+			return List.of();
+		}
+		try (Stream<Path> files = Files.list(dir)) {
+			return files
+				.filter(p -> {
+					String name = p.getFileName().toString();
+					return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+				})
+				.sorted()
+				.toList();
+		}
+	}
+
+	private void write(TriviaJournalEntry entry) {
+		if (failed) {
+			return;
+		}
+		try {
+			scratch.clear();
+			TriviaJournalEntry.write(entry, scratch);
+			scratch.flip();
+			int length = scratch.remaining();
+			if (map == null) {
+				reopenLastSegment();
+			}
+			// Room for this record plus the zero terminator.
+			if (map == null || map.remaining() < 4 + length + 4) {
+				openNextSegment();
+			}
+			// Body and terminator first, length last: a reader never sees a length without its record.
+			// The terminator is explicit because a reopened segment may hold a torn record's bytes here.
+			int pos = map.position();
+			map.position(pos + 4);
+			map.put(scratch);
+			map.putInt(map.position(), 0);
+			map.putInt(pos, length);
+		} catch (IOException | RuntimeException e) {
+			failed = true;
+			closeSegment();
+			TriviaMod.LOGGER.warn("Trivia: round journal disabled until the next reload: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Maps the newest segment for appending, positioned at its terminator, if it is intact and has room.
+	 */
+	private void reopenLastSegment() throws IOException {
+		List<Path> existing = segments(getDir());
+		if (existing.isEmpty()) {
+			return;
+		}
+		Path file = existing.get(existing.size() - 1);
+		FileChannel ch = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+			if (ch.size() != SEGMENT_BYTES) {
+				ch.close();
+				return;
+			}
+			MappedByteBuffer m = ch.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+			int end = endOf(m);
+			if (end < 0 || SEGMENT_BYTES - end < REOPEN_MIN_FREE) {
+				ch.close();
+				return;
+			}
+			m.position(end);
+			segment = ch;
+			map = m;
+		} catch (IOException | RuntimeException e) {
+			ch.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return the position of the terminator in {@code m} (the end of the last intact record), or -1
+	 * if it is not a segment this version can append to
+	 */
+	private static int endOf(ByteBuffer m) {
+		if (m.getInt(0) != MAGIC || m.getInt(4) != VERSION) {
+			return -1;
+		}
+		int pos = HEADER_BYTES;
+		while (pos <= m.limit() - 4) {
+			int length = m.getInt(pos);
+			if (length <= 0 || length > m.limit() - pos - 4) {
+				break;
+			}
+			pos += 4 + length;
+		}
+		return pos;
+	}
+
+	private void openNextSegment() throws IOException {
+		closeSegment();
+		Path dir = getDir();
+		Files.createDirectories(dir);
+		if (nextSequence < 0) {
+			nextSequence = 1;
+			for (Path p : segments(dir)) {
+				nextSequence = Math.max(nextSequence, sequenceOf(p) + 1);
+			}
+		}
+		Path file = dir.resolve(String.format("%s%08d%s", SEGMENT_PREFIX, nextSequence, SEGMENT_SUFFIX));
+		segment = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		map = segment.map(FileChannel.MapMode.READ_WRITE, 0, SEGMENT_BYTES);
+		map.putInt(MAGIC).putInt(VERSION).putLong(nextSequence).putLong(System.currentTimeMillis());
+		nextSequence++;
+		prune(dir);
+	}
+
+	private void closeSegment() {
+		if (map != null) {
+			map.force();
+			map = null;
+		}
+		if (segment != null) {
+			try {
+				segment.close();
+			} catch (IOException e) {
+				TriviaMod.LOGGER.warn("Trivia: failed to close journal segment: {}", e.getMessage());
+			}
+			segment = null;
+		}
+	}
+
+	private void prune(Path dir) throws IOException {
+		if (maxSegments <= 0) {
+			return;
+		}
+		List<Path> all = new ArrayList<>(segments(dir));
+		for (int i = 0; i < all.size() - maxSegments; i++) {
+			Files.deleteIfExists(all.get(i));
+		}
+	}
+
+	private static long sequenceOf(Path p) {
+		String name = p.getFileName().toString();
+		try {
+			return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+		} catch (NumberFormatException e) {
+			return 0;
+		}
+	}
+}
@@ -0,0 +1,153 @@
+package mod.trivia.journal;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * One record of the round journal.
+ *
+ * Every entry carries wall-clock time, the channel key and the channel's round id. {@code nanos} values
+ * are System.nanoTime() readings from the same process, so within a round they can be subtracted
+ * (e.g. guess arrival minus question broadcast) but mean nothing across restarts.
+ */
+public sealed interface TriviaJournalEntry {
+	byte ROUND_START = 1;
+	byte GUESS = 2;
+	byte AI_VERDICT = 3;
+	byte REWARD = 4;
+	byte PUNISH = 5;
+	byte ROUND_END = 6;
+
+	// Longer strings are cut so one record always fits comfortably in a segment.
+	int MAX_STRING_BYTES = 4096;
+
+	long epochMillis();
+
+	String channel();
+
+	long roundId();
+
+	/**
+	 * The question went out. {@code seed} seeds the round's RandomGenerator (java.util.Random, whose
+	 * algorithm is fixed by its spec), which every reward and effect pick of the round draws from.
+	 */
+	record RoundStart(long epochMillis, String channel, long roundId, long nanos, long seed, long questionKey, String question, String answer, int durationSeconds) implements TriviaJournalEntry {
+	}
+
+	record Guess(long epochMillis, String channel, long roundId, long nanos, UUID player, String name, String guess, byte outcome) implements TriviaJournalEntry {
+		public static final byte MATCHED = 1;
+		public static final byte WRONG = 2;
+		public static final byte AI_PENDING = 3;
+	}
+
+	record AiVerdict(long epochMillis, String channel, long roundId, UUID player, boolean accepted) implements TriviaJournalEntry {
+	}
+
+	record Reward(long epochMillis, String channel, long roundId, UUID player, String item, int count) implements TriviaJournalEntry {
+	}
+
+	record Punish(long epochMillis, String channel, long roundId, UUID player, String effect, int durationSeconds, int amplifier, String reason) implements TriviaJournalEntry {
+	}
+
+	record RoundEnd(long epochMillis, String channel, long roundId, long nanos, byte reason, int solved, int participants) implements TriviaJournalEntry {
+		public static final byte TIMEOUT = 1;
+		public static final byte ALL_ANSWERED = 2;
+		public static final byte DROPPED = 3;
+	}
+
+	static void write(TriviaJournalEntry e, ByteBuffer out) {
+		int typePos = out.position();
+		out.put((byte) 0);
+		out.putLong(e.epochMillis());
+		putString(out, e.channel());
+		out.putLong(e.roundId());
+		byte type;
+		if (e instanceof RoundStart r) {
+			type = ROUND_START;
+			out.putLong(r.nanos());
+			out.putLong(r.seed());
+			out.putLong(r.questionKey());
+			putString(out, r.question());
+			putString(out, r.answer());
+			out.putInt(r.durationSeconds());
+		} else if (e instanceof Guess g) {
+			type = GUESS;
+			out.putLong(g.nanos());
+			putUuid(out, g.player());
+			putString(out, g.name());
+			putString(out, g.guess());
+			out.put(g.outcome());
+		} else if (e instanceof AiVerdict v) {
+			type = AI_VERDICT;
+			putUuid(out, v.player());
+			out.put((byte) (v.accepted() ? 1 : 0));
+		} else if (e instanceof Reward r) {
+			type = REWARD;
+			putUuid(out, r.player());
+			putString(out, r.item());
+			out.putInt(r.count());
+		} else if (e instanceof Punish p) {
+			type = PUNISH;
+			putUuid(out, p.player());
+			putString(out, p.effect());
+			out.putInt(p.durationSeconds());
+			out.putInt(p.amplifier());
+			putString(out, p.reason());
+		} else {
+			RoundEnd r = (RoundEnd) e;
+			type = ROUND_END;
+			out.putLong(r.nanos());
+			out.put(r.reason());
+			out.putInt(r.solved());
+			out.putInt(r.participants());
+		}
+		out.put(typePos, type);
+	}
+
+	/**
+	 * @return the decoded entry, or null for a record type this version does not know
+	 */
+	static TriviaJournalEntry read(ByteBuffer in) {
+		byte type = in.get();
+		long epochMillis = in.getLong();
+		String channel = getString(in);
+		long roundId = in.getLong();
+		return switch (type) {
+			case ROUND_START -> new RoundStart(epochMillis, channel, roundId, in.getLong(), in.getLong(), in.getLong(), getString(in), getString(in), in.getInt());
+			case GUESS -> new Guess(epochMillis, channel, roundId, in.getLong(), getUuid(in), getString(in), getString(in), in.get());
+			case AI_VERDICT -> new AiVerdict(epochMillis, channel, roundId, getUuid(in), in.get() != 0);
+			case REWARD -> new Reward(epochMillis, channel, roundId, getUuid(in), getString(in), in.getInt());
+			case PUNISH -> new Punish(epochMillis, channel, roundId, getUuid(in), getString(in), in.getInt(), in.getInt(), getString(in));
+			case ROUND_END -> new RoundEnd(epochMillis, channel, roundId, in.getLong(), in.get(), in.getInt(), in.getInt());
+			default -> null;
+		};
+	}
+
+	private static void putUuid(ByteBuffer out, UUID id) {
+		out.putLong(id.getMostSignificantBits());
+		out.putLong(id.getLeastSignificantBits());
+	}
+
+	private static UUID getUuid(ByteBuffer in) {
+		return new UUID(in.getLong(), in.getLong());
+	}
+
+	private static void putString(ByteBuffer out, String s) {
+		byte[] bytes = s == null ? new byte[0] : s.getBytes(StandardCharsets.UTF_8);
+		int len = Math.min(bytes.length, MAX_STRING_BYTES);
+		// Cut on a character boundary: never split a multi-byte UTF-8 sequence.
+		while (len < bytes.length && len > 0 && (bytes[len] & 0xC0) == 0x80) {
+			len--;
+		}
+		out.putShort((short) len);
+		out.put(bytes, 0, len);
+	}
+
+	private static String getString(ByteBuffer in) {
+		int len = Short.toUnsignedInt(in.getShort());
+		byte[] bytes = new byte[len];
+		in.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+}
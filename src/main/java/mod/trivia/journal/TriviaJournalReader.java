@@ -0,0 +1,67 @@
+package mod.trivia.journal;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Streams journal segments back as entries, one segment mapping at a time, for offline tools
+ * (replaying a disputed round, analytics). Memory use does not depend on the journal's size.
+ */
+public final class TriviaJournalReader {
+	private TriviaJournalReader() {
+	}
+
+	/**
+	 * Reads every segment in {@code dir}, oldest first.
+	 */
+	public static void readAll(Path dir, Consumer<TriviaJournalEntry> sink) throws IOException {
+		for (Path segment : TriviaJournal.segments(dir)) {
+			read(segment, sink);
+		}
+	}
+
+	/**
+	 * Reads one segment up to its terminator. A damaged record ends the segment; unknown record types
+	 * are skipped.
+	 *
+	 * @return number of entries passed to {@code sink}
+	 */
+	public static int read(Path segment, Consumer<TriviaJournalEntry> sink) throws IOException {
+		MappedByteBuffer map;
+		try (FileChannel ch = FileChannel.open(segment, StandardOpenOption.READ)) {
+			map = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+		}
+		if (map.remaining() < TriviaJournal.HEADER_BYTES
+			|| map.getInt() != TriviaJournal.MAGIC
+			|| map.getInt() != TriviaJournal.VERSION) {
+			throw new IOException("not a trivia journal segment: " + segment.getFileName());
+		}
+		map.position(TriviaJournal.HEADER_BYTES);
+		int count = 0;
+		while (map.remaining() >= 4) {
+			int length = map.getInt();
+			if (length <= 0 || length > map.remaining()) {
+				break;
+			}
+			ByteBuffer record = map.slice(map.position(), length);
+			map.position(map.position() + length);
+			TriviaJournalEntry entry;
+			try {
+				entry = TriviaJournalEntry.read(record);
+			} catch (BufferUnderflowException e) {
+				break;
+			}
+			if (entry != null) {
+				sink.accept(entry);
+				count++;
+			}
+		}
+		return count;
+	}
+}
@@ -0,0 +1,100 @@
+package mod.trivia.message;
+
+import java.util.List;
+
+/**
+ * Every customizable trivia message: its key in messages.json, the built-in default template, and
+ * the placeholder names it accepts (in the order callers pass them).
+ */
+public enum TriviaMessage {
+	QUESTION("question", "Trivia: {question}", "question"),
+	INSTRUCTIONS(
+		"instructions",
+		"Answer with {prefix}<answer> (tries: {tries}, time: {seconds}s) | {hintInfo}"
+			+ " | Admin: /trivia hint off hides hint lines"
+			+ ", /trivia battle off disables wrong-guess broadcasts"
+			+ ", /trivia battle name off hides the guesser name"
+			+ ", /trivia announce off hides correct-guess broadcasts"
+			+ ", /trivia disable stops trivia"
+			+ " | Players: /trivia quiet, /trivia mute",
+		"prefix", "tries", "seconds", "hintInfo"
+	),
+	INSTRUCTIONS_HINT_GLOBAL("instructionsHintGlobal", "Hint: after 1+ wrong guess, all eligible players must type {prefix}hint for 1 global hint", "prefix"),
+	INSTRUCTIONS_HINT_PRIVATE("instructionsHintPrivate", "Hint: after 1+ wrong guess, type {prefix}hint (AI must be enabled)", "prefix"),
+	UNLIMITED("unlimited", "unlimited"),
+
+	NO_ACTIVE_QUESTION("noActiveQuestion", "Trivia: no active question right now."),
+	RATE_LIMITED("rateLimited", "Trivia: slow down, some of your guesses were ignored."),
+	EMPTY_ANSWER("emptyAnswer", "Trivia: empty answer."),
+	ALREADY_SOLVED("alreadySolved", "Trivia: you already solved this one."),
+	ALREADY_FAILED("alreadyFailed", "Trivia: you already failed this one."),
+	ALREADY_CHECKING("alreadyChecking", "Trivia: already checking an answer, please wait..."),
+	CHECKING("checking", "Trivia: checking your answer..."),
+	SERVER_UNAVAILABLE("serverUnavailable", "Trivia: server unavailable."),
+
+	CORRECT("correct", "Trivia: correct. Answer: {answer}", "answer"),
+	REWARD("reward", "Trivia: reward: {count}x {item}", "count", "item"),
+	REWARD_EMPTY("rewardEmpty", "Trivia: reward pool is empty."),
+	CORRECT_ANNOUNCE("correctAnnounce", "Trivia: {player} guessed correctly!", "player"),
+	CORRECT_ANNOUNCE_SUFFIX("correctAnnounceSuffix", " Hint: /trivia announce off, /trivia hint off"),
+
+	WRONG("wrong", "Trivia: wrong. Tries left: {tries}", "tries"),
+	WRONG_BROADCAST("wrongBroadcast", "Trivia: {player}'s guess of {guess} was wrong.", "player", "guess"),
+	WRONG_BROADCAST_ANONYMOUS("wrongBroadcastAnonymous", "Trivia: a guess of {guess} was wrong.", "guess"),
+	WRONG_SUMMARY("wrongSummary", "Trivia: {count} wrong guesses: ", "count"),
+	BATTLE_SUFFIX("battleSuffix", " Hint: /trivia battle name off, /trivia hint off"),
+
+	HINT_DISABLED("hintDisabled", "Trivia: AI hints are disabled (or API key is missing)."),
+	HINT_NEEDS_WRONG_GUESS("hintNeedsWrongGuess", "Trivia: you can only use hints after at least 1 wrong guess."),
+	HINT_GLOBAL_REVEALED("hintGlobalRevealed", "Trivia: global hint already revealed this round."),
+	HINT_GLOBAL_ALREADY_REQUESTED("hintGlobalAlreadyRequested", "Trivia: you already requested the global hint."),
+	HINT_GLOBAL_NONE_ELIGIBLE("hintGlobalNoneEligible", "Trivia: no eligible players for a global hint yet."),
+	HINT_GLOBAL_REQUESTED("hintGlobalRequested", "Trivia: {player} requested a global hint ({requested}/{eligible}).", "player", "requested", "eligible"),
+	HINT_GLOBAL_PROGRESS("hintGlobalProgress", "Trivia: global hint progress ({requested}/{eligible}) eligible players.", "requested", "eligible"),
+	HINT_GLOBAL_GENERATING("hintGlobalGenerating", "Trivia: generating a global hint..."),
+	HINT_GENERATING("hintGenerating", "Trivia: generating hint..."),
+	HINT_COOLDOWN("hintCooldown", "Trivia: hint cooldown: {seconds}s", "seconds"),
+	HINT("hint", "Trivia hint: {hint}", "hint"),
+
+	ROUND_END_TIMEOUT("roundEndTimeout", "Trivia: time is up. Answer: {answer}", "answer"),
+	ROUND_END_ALL_ANSWERED("roundEndAllAnswered", "Trivia: everyone has answered. Answer: {answer}", "answer"),
+	WINNERS("winners", "Trivia: winners: {winners}", "winners"),
+	NO_WINNERS("noWinners", "Trivia: nobody guessed correctly."),
+
+	TEAM_ALREADY_SOLVED("teamAlreadySolved", "Trivia: your team already solved this one."),
+	TEAM_ALREADY_FAILED("teamAlreadyFailed", "Trivia: your team is out of tries for this one."),
+	TEAM_CORRECT("teamCorrect", "Trivia: {player} answered for your team! Answer: {answer}", "player", "answer"),
+	TEAM_CORRECT_ANNOUNCE("teamCorrectAnnounce", "Trivia: team {team} got it ({player})!", "team", "player"),
+	TEAM_WRONG("teamWrong", "Trivia: wrong. Team tries left: {tries}", "tries"),
+	TEAM_OUT_OF_TRIES("teamOutOfTries", "Trivia: {player} used your team's last try.", "player"),
+	TEAM_SCORES("teamScores", "Trivia: team scores: {scores}", "scores"),
+
+	SPEED_START("speedStart", "Trivia: speed round! {count} questions, {seconds}s each. Faster answers score more.", "count", "seconds"),
+	SPEED_QUESTION("speedQuestion", "Trivia [{index}/{count}]: {question}", "index", "count", "question"),
+	SPEED_CORRECT("speedCorrect", "Trivia: +{points} points ({seconds}s).", "points", "seconds"),
+	SPEED_RESULTS("speedResults", "Trivia: speed round over! {scores}", "scores"),
+	SPEED_NO_SCORES("speedNoScores", "Trivia: speed round over, nobody scored."),
+	SPEED_HISTOGRAM("speedHistogram", "Trivia: answer times: {histogram}", "histogram");
+
+	private final String key;
+	private final String defaultTemplate;
+	private final List<String> params;
+
+	TriviaMessage(String key, String defaultTemplate, String... params) {
+		this.key = key;
+		this.defaultTemplate = defaultTemplate;
+		this.params = List.of(params);
+	}
+
+	public String key() {
+		return key;
+	}
+
+	public String defaultTemplate() {
+		return defaultTemplate;
+	}
+
+	public List<String> params() {
+		return params;
+	}
+}
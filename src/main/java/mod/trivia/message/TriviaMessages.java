@@ -0,0 +1,177 @@
+package mod.trivia.message;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import mod.trivia.TriviaMod;
+import mod.trivia.config.TriviaConfigManager;
+import net.minecraft.text.MutableText;
+import net.minecraft.text.Text;
+
+import java.io.BufferedReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compiled message templates, loaded from messages.json (created with the defaults on first run).
+ *
+ * Templates use {name} placeholders. Each template is compiled once per reload: static fragments
+ * become shared Text instances, and templates without placeholders are a single cached Text, so
+ * sending a message only allocates for its dynamic parts.
+ */
+public final class TriviaMessages {
+	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().disableHtmlEscaping().create();
+
+	private static final class Template {
+		private final String[] literals;
+		private final Text[] literalTexts;
+		private final int[] slots;
+		private final Text constant;
+		private final int sizeHint;
+
+		private Template(String[] literals, int[] slots) {
+			this.literals = literals;
+			this.slots = slots;
+			this.literalTexts = new Text[literals.length];
+			int size = 0;
+			for (int i = 0; i < literals.length; i++) {
+				this.literalTexts[i] = literals[i].isEmpty() ? null : Text.literal(literals[i]);
+				size += literals[i].length();
+			}
+			this.sizeHint = size + slots.length * 16;
+			this.constant = slots.length == 0 ? Text.literal(literals[0]) : null;
+		}
+	}
+
+	private final Template[] templates = new Template[TriviaMessage.values().length];
+
+	public TriviaMessages() {
+		for (TriviaMessage m : TriviaMessage.values()) {
+			templates[m.ordinal()] = compile(m, m.defaultTemplate());
+		}
+	}
+
+	public Path getPath() {
+		return TriviaConfigManager.getConfigDir().resolve("messages.json");
+	}
+
+	/**
+	 * Re-reads messages.json. Missing keys (or a missing file) fall back to the built-in defaults.
+	 */
+	public void reload() {
+		Path file = getPath();
+		JsonObject overrides = new JsonObject();
+		try {
+			if (Files.notExists(file)) {
+				writeDefaults(file);
+			} else {
+				try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+					JsonElement root = JsonParser.parseReader(reader);
+					if (root != null && root.isJsonObject()) {
+						overrides = root.getAsJsonObject();
+					}
+				}
+			}
+		} catch (Exception e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to load messages.json; using defaults: {}", e.getMessage());
+		}
+
+		for (TriviaMessage m : TriviaMessage.values()) {
+			String template = m.defaultTemplate();
+			JsonElement el = overrides.get(m.key());
+			if (el != null && el.isJsonPrimitive()) {
+				template = el.getAsString();
+			}
+			templates[m.ordinal()] = compile(m, template);
+		}
+	}
+
+	/**
+	 * Renders {@code message} as chat text. Arguments follow {@link TriviaMessage#params()} order.
+	 */
+	public Text text(TriviaMessage message, Object... args) {
+		Template t = templates[message.ordinal()];
+		if (t.constant != null) {
+			return t.constant;
+		}
+		MutableText out = Text.empty();
+		for (int i = 0; i < t.slots.length; i++) {
+			if (t.literalTexts[i] != null) {
+				out.append(t.literalTexts[i]);
+			}
+			out.append(arg(args, t.slots[i]));
+		}
+		Text tail = t.literalTexts[t.slots.length];
+		if (tail != null) {
+			out.append(tail);
+		}
+		return out;
+	}
+
+	/**
+	 * Renders {@code message} as a plain string (for lines assembled from several fragments).
+	 */
+	public String format(TriviaMessage message, Object... args) {
+		Template t = templates[message.ordinal()];
+		if (t.slots.length == 0) {
+			return t.literals[0];
+		}
+		StringBuilder sb = new StringBuilder(t.sizeHint);
+		for (int i = 0; i < t.slots.length; i++) {
+			sb.append(t.literals[i]).append(arg(args, t.slots[i]));
+		}
+		return sb.append(t.literals[t.slots.length]).toString();
+	}
+
+	private static String arg(Object[] args, int index) {
+		if (args == null || index >= args.length || args[index] == null) {
+			return "";
+		}
+		return String.valueOf(args[index]);
+	}
+
+	private static Template compile(TriviaMessage m, String template) {
+		List<String> literals = new ArrayList<>();
+		List<Integer> slots = new ArrayList<>();
+		StringBuilder current = new StringBuilder();
+		int i = 0;
+		while (i < template.length()) {
+			char ch = template.charAt(i);
+			if (ch == '{') {
+				int close = template.indexOf('}', i + 1);
+				if (close > i) {
+					int param = m.params().indexOf(template.substring(i + 1, close));
+					if (param >= 0) {
+						literals.add(current.toString());
+						current.setLength(0);
+						slots.add(param);
+						i = close + 1;
+						continue;
+					}
+				}
+			}
+			current.append(ch);
+			i++;
+		}
+		literals.add(current.toString());
+		int[] slotArray = new int[slots.size()];
+		for (int j = 0; j < slotArray.length; j++) {
+			slotArray[j] = slots.get(j);
+		}
+		return new Template(literals.toArray(new String[0]), slotArray);
+	}
+
+	private static void writeDefaults(Path file) throws Exception {
+		JsonObject obj = new JsonObject();
+		for (TriviaMessage m : TriviaMessage.values()) {
+			obj.addProperty(m.key(), m.defaultTemplate());
+		}
+		Files.createDirectories(file.getParent());
+		TriviaConfigManager.writeAtomic(file, GSON.toJson(obj));
+	}
+}
@@ -15,6 +15,12 @@ import java.util.List;
 import java.util.random.RandomGenerator;
 
 public final class TriviaPunisher {
+	/**
+	 * @param effectId registry id of the effect, e.g. "minecraft:slowness"
+	 */
+	public record PunishResult(String effectId, int durationSeconds, int amplifier) {
+	}
+
 	private List<StatusEffect> effectPool = List.of();
 
 	public void rebuildPools() {
@@ -28,12 +34,15 @@ public final class TriviaPunisher {
 		TriviaMod.LOGGER.info("Trivia punishment pool: {} effects", this.effectPool.size());
 	}
 
-	public void punish(ServerPlayerEntity player, TriviaConfig cfg, RandomGenerator rng, String reason) {
+	/**
+	 * @return the effect applied, or null if none was
+	 */
+	public PunishResult punish(ServerPlayerEntity player, TriviaConfig cfg, RandomGenerator rng, String reason) {
 		if (effectPool.isEmpty()) {
-			return;
+			return null;
 		}
 		if (cfg == null) {
-			return;
+			return null;
 		}
 		StatusEffect effect = RandomUtil.pick(effectPool, rng);
 		RegistryEntry<StatusEffect> effectEntry;
@@ -42,7 +51,7 @@ public final class TriviaPunisher {
 		} catch (Exception e) {
 			// Fallback: if we can't resolve an entry for some reason, skip punishment.
 			TriviaMod.LOGGER.warn("Trivia: could not resolve status effect entry", e);
-			return;
+			return null;
 		}
 		int durationSeconds = RandomUtil.nextIntInclusive(
 			rng,
@@ -59,5 +68,6 @@ public final class TriviaPunisher {
 
 		player.addStatusEffect(new StatusEffectInstance(effectEntry, durationTicks, amplifier));
 		player.sendMessage(Text.literal("Trivia: failed (" + reason + "). You were given a random effect."), false);
+		return new PunishResult(String.valueOf(Registries.STATUS_EFFECT.getId(effect)), durationSeconds, amplifier);
 	}
 }
\ No newline at end of file
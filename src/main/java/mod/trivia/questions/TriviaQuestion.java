@@ -1,8 +1,24 @@
 package mod.trivia.questions;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
 public final class TriviaQuestion {
 	public String question;
 	public String answer;
+	/**
+	 * Other accepted answers (optional).
+	 */
+	public List<String> aliases;
+
+	// Optional selection metadata (see TriviaConfig.categoryWeights / difficultyWeights).
+	public String category;
+	public String difficulty;
+	/**
+	 * Relative pick weight; null means 1.
+	 */
+	public Double weight;
 
 	public TriviaQuestion() {
 	}
@@ -11,4 +27,51 @@ public final class TriviaQuestion {
 		this.question = question;
 		this.answer = answer;
 	}
+
+	/**
+	 * The answer followed by any non-blank aliases.
+	 */
+	public List<String> answers() {
+		if (aliases == null || aliases.isEmpty()) {
+			return answer == null ? List.of() : List.of(answer);
+		}
+		List<String> out = new ArrayList<>(aliases.size() + 1);
+		if (answer != null) {
+			out.add(answer);
+		}
+		for (String alias : aliases) {
+			if (alias != null && !alias.isBlank()) {
+				out.add(alias);
+			}
+		}
+		return out;
+	}
+
+	/**
+	 * Stable 64-bit identity of this question (FNV-1a of the trimmed, lower-cased question text), so
+	 * recorded history still matches after the bank is reordered or an answer is corrected.
+	 */
+	public long key() {
+		return keyOf(question);
+	}
+
+	/**
+	 * This question's own weight, clamped to a finite non-negative value.
+	 */
+	public double baseWeight() {
+		if (weight == null || !Double.isFinite(weight) || weight < 0) {
+			return weight == null ? 1.0 : 0.0;
+		}
+		return weight;
+	}
+
+	public static long keyOf(String question) {
+		String s = question == null ? "" : question.strip().toLowerCase(Locale.ROOT);
+		long h = 0xcbf29ce484222325L;
+		for (int i = 0; i < s.length(); i++) {
+			h ^= s.charAt(i);
+			h *= 0x100000001b3L;
+		}
+		return h;
+	}
 }
\ No newline at end of file
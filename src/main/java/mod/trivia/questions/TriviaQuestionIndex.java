@@ -0,0 +1,471 @@
+package mod.trivia.questions;
+
+import mod.trivia.TriviaMod;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.stream.IntStream;
+
+/**
+ * Inverted token index over question, answer and alias text for admin search (/trivia find).
+ *
+ * Built once per bank load: chunks of the bank are tokenized in parallel into local posting lists,
+ * which are then concatenated in chunk order, so every posting list is a sorted int[] of bank indices.
+ * A query walks only the posting lists of its terms (doc-at-a-time) and keeps the best matches in a
+ * bounded heap. Questions added or removed in-game are applied in O(question length): additions go
+ * to small side posting lists (their indices are above every built one, so concatenation keeps the
+ * order) and removals are skipped at query time. The build also flags exact duplicates (same {@link TriviaQuestion#key()}) and near
+ * duplicates (MinHash over question tokens, verified by Jaccard similarity) in the log.
+ */
+public final class TriviaQuestionIndex {
+	private static final int CHUNK_SIZE = 16384;
+	private static final Set<String> STOP_WORDS = Set.of(
+		"a", "an", "and", "are", "as", "at", "by", "did", "do", "does", "for", "from", "in", "is", "it",
+		"of", "on", "or", "the", "to", "was", "what", "which", "who", "with"
+	);
+
+	// Near-duplicate detection: NUM_BANDS bands of BAND_ROWS MinHash rows (~0.7 candidate threshold).
+	private static final int BAND_ROWS = 4;
+	private static final int NUM_BANDS = 4;
+	private static final int MIN_TOKENS_FOR_NEAR = 3;
+	private static final double NEAR_DUPLICATE_JACCARD = 0.8;
+	// Bounds the pairwise checks inside one oversized bucket (e.g. templated questions).
+	private static final int MAX_BUCKET_COMPARISONS = 16;
+	private static final int LOGGED_EXAMPLES = 5;
+
+	public record Match(int index, double score) {
+	}
+
+	/**
+	 * Two bank indices ({@code first < second}) with the same or nearly the same question text.
+	 */
+	public record Duplicate(int first, int second, boolean exact) {
+	}
+
+	private final Map<String, int[]> postings;
+	private final List<Duplicate> duplicates;
+	private final Map<String, Postings> addedPostings = new HashMap<>();
+	private final BitSet removed = new BitSet();
+	private int size;
+
+	private TriviaQuestionIndex(Map<String, int[]> postings, int size, List<Duplicate> duplicates) {
+		this.postings = postings;
+		this.size = size;
+		this.duplicates = duplicates;
+	}
+
+	public static TriviaQuestionIndex build(List<TriviaQuestion> qs) {
+		int n = qs.size();
+		if (n == 0) {
+			return new TriviaQuestionIndex(new HashMap<>(), 0, List.of());
+		}
+		long start = System.nanoTime();
+		int chunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+		int[][] questionTokens = new int[n][];
+		List<Map<String, Postings>> partial = IntStream.range(0, chunks)
+			.parallel()
+			.mapToObj(c -> indexChunk(qs, c * CHUNK_SIZE, Math.min(n, (c + 1) * CHUNK_SIZE), questionTokens))
+			.toList();
+
+		Map<String, Postings> merged = new HashMap<>();
+		for (Map<String, Postings> chunk : partial) {
+			chunk.forEach((term, p) -> merged.computeIfAbsent(term, t -> new Postings()).addAll(p));
+		}
+		Map<String, int[]> postings = new HashMap<>(merged.size() * 4 / 3 + 1);
+		merged.forEach((term, p) -> postings.put(term, p.toArray()));
+
+		List<Duplicate> duplicates = findDuplicates(qs, questionTokens);
+		TriviaQuestionIndex index = new TriviaQuestionIndex(postings, n, duplicates);
+		TriviaMod.LOGGER.info(
+			"Trivia: indexed {} questions ({} terms) in {} ms",
+			n,
+			postings.size(),
+			(System.nanoTime() - start) / 1_000_000L
+		);
+		index.logDuplicates(qs);
+		return index;
+	}
+
+	/**
+	 * Best matches for {@code query}, ranked by the summed rarity (IDF) of the matched terms, so
+	 * questions containing every term come first.
+	 */
+	public List<Match> search(String query, int limit) {
+		List<int[]> lists = new ArrayList<>();
+		List<Double> idf = new ArrayList<>();
+		for (String term : new LinkedHashSet<>(tokenize(query))) {
+			int[] docs = docsOf(term);
+			if (docs != null) {
+				lists.add(docs);
+				idf.add(Math.log(1.0 + (double) size / docs.length));
+			}
+		}
+		if (lists.isEmpty() || limit <= 0) {
+			return List.of();
+		}
+
+		PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, (a, b) -> a.score() != b.score()
+			? Double.compare(a.score(), b.score())
+			: Integer.compare(b.index(), a.index()));
+		int[] cursor = new int[lists.size()];
+		while (true) {
+			int doc = Integer.MAX_VALUE;
+			for (int t = 0; t < cursor.length; t++) {
+				int[] docs = lists.get(t);
+				if (cursor[t] < docs.length && docs[cursor[t]] < doc) {
+					doc = docs[cursor[t]];
+				}
+			}
+			if (doc == Integer.MAX_VALUE) {
+				break;
+			}
+			double score = 0;
+			for (int t = 0; t < cursor.length; t++) {
+				int[] docs = lists.get(t);
+				if (cursor[t] < docs.length && docs[cursor[t]] == doc) {
+					score += idf.get(t);
+					cursor[t]++;
+				}
+			}
+			if (removed.get(doc)) {
+				continue;
+			}
+			// Docs arrive in increasing order, so a tie with the current worst never displaces it.
+			if (best.size() == limit && score <= best.peek().score()) {
+				continue;
+			}
+			best.add(new Match(doc, score));
+			if (best.size() > limit) {
+				best.poll();
+			}
+		}
+		List<Match> out = new ArrayList<>(best);
+		out.sort((a, b) -> a.score() != b.score() ? Double.compare(b.score(), a.score()) : Integer.compare(a.index(), b.index()));
+		return out;
+	}
+
+	/**
+	 * First question containing every term of {@code text} that {@code accept} takes, found by walking
+	 * only the rarest term's posting list. Text without searchable terms is left to {@code fallback}.
+	 *
+	 * @return the bank index, or -1 if none
+	 */
+	public int findFirst(String text, IntPredicate accept, IntSupplier fallback) {
+		int[] rarest = null;
+		for (String term : tokenize(text)) {
+			int[] docs = docsOf(term);
+			if (docs == null) {
+				return -1;
+			}
+			if (rarest == null || docs.length < rarest.length) {
+				rarest = docs;
+			}
+		}
+		if (rarest == null) {
+			return fallback.getAsInt();
+		}
+		for (int doc : rarest) {
+			if (!removed.get(doc) && accept.test(doc)) {
+				return doc;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Indexes a question appended at bank {@code index} (above every indexed one).
+	 */
+	public void add(int index, TriviaQuestion q) {
+		for (String term : terms(q)) {
+			addedPostings.computeIfAbsent(term, t -> new Postings()).addOnce(index);
+		}
+		size++;
+	}
+
+	/**
+	 * Hides the question at bank {@code index} from search results.
+	 */
+	public void remove(int index) {
+		if (!removed.get(index)) {
+			removed.set(index);
+			size--;
+		}
+	}
+
+	/**
+	 * Duplicate pairs found when the index was built.
+	 */
+	public List<Duplicate> duplicates() {
+		return duplicates;
+	}
+
+	/**
+	 * Search terms of a question: its question text, answer and aliases.
+	 */
+	private static List<String> terms(TriviaQuestion q) {
+		List<String> terms = tokenize(q.question);
+		for (String answer : q.answers()) {
+			terms.addAll(tokenize(answer));
+		}
+		return terms;
+	}
+
+	private int[] docsOf(String term) {
+		int[] docs = postings.get(term);
+		Postings added = addedPostings.get(term);
+		if (added == null) {
+			return docs;
+		}
+		return docs == null ? added.toArray() : concat(docs, added);
+	}
+
+	private static int[] concat(int[] base, Postings added) {
+		int[] out = Arrays.copyOf(base, base.length + added.size);
+		System.arraycopy(added.docs, 0, out, base.length, added.size);
+		return out;
+	}
+
+	/**
+	 * Lower-cased letter/digit runs, without one-letter words and a few very common English words.
+	 */
+	static List<String> tokenize(String text) {
+		List<String> out = new ArrayList<>();
+		if (text == null) {
+			return out;
+		}
+		String s = text.toLowerCase(Locale.ROOT);
+		int i = 0;
+		while (i < s.length()) {
+			while (i < s.length() && !Character.isLetterOrDigit(s.charAt(i))) {
+				i++;
+			}
+			int begin = i;
+			while (i < s.length() && Character.isLetterOrDigit(s.charAt(i))) {
+				i++;
+			}
+			if (i - begin == 1 && !Character.isDigit(s.charAt(begin))) {
+				continue;
+			}
+			if (i > begin) {
+				String token = s.substring(begin, i);
+				if (!STOP_WORDS.contains(token)) {
+					out.add(token);
+				}
+			}
+		}
+		return out;
+	}
+
+	private static Map<String, Postings> indexChunk(List<TriviaQuestion> qs, int from, int to, int[][] questionTokens) {
+		Map<String, Postings> local = new HashMap<>();
+		for (int i = from; i < to; i++) {
+			TriviaQuestion q = qs.get(i);
+			List<String> terms = tokenize(q.question);
+			questionTokens[i] = sortedUniqueHashes(terms);
+			for (String answer : q.answers()) {
+				terms.addAll(tokenize(answer));
+			}
+			for (String term : terms) {
+				local.computeIfAbsent(term, t -> new Postings()).addOnce(i);
+			}
+		}
+		return local;
+	}
+
+	private static int[] sortedUniqueHashes(List<String> tokens) {
+		int[] hashes = new int[tokens.size()];
+		for (int i = 0; i < hashes.length; i++) {
+			hashes[i] = tokens.get(i).hashCode();
+		}
+		Arrays.sort(hashes);
+		int unique = 0;
+		for (int i = 0; i < hashes.length; i++) {
+			if (unique == 0 || hashes[unique - 1] != hashes[i]) {
+				hashes[unique++] = hashes[i];
+			}
+		}
+		return Arrays.copyOf(hashes, unique);
+	}
+
+	private static List<Duplicate> findDuplicates(List<TriviaQuestion> qs, int[][] questionTokens) {
+		int n = qs.size();
+		List<Duplicate> out = new ArrayList<>();
+		Set<Long> reported = new HashSet<>();
+
+		// Exact: repeated keys are adjacent once sorted; each later copy is paired with the first.
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = qs.get(i).key();
+		}
+		long[] sortedKeys = keys.clone();
+		Arrays.parallelSort(sortedKeys);
+		Map<Long, Integer> firstOf = new HashMap<>();
+		for (int i = 1; i < n; i++) {
+			if (sortedKeys[i] == sortedKeys[i - 1]) {
+				firstOf.put(sortedKeys[i], -1);
+			}
+		}
+		if (!firstOf.isEmpty()) {
+			for (int i = 0; i < n; i++) {
+				Integer first = firstOf.get(keys[i]);
+				if (first == null) {
+					continue;
+				}
+				if (first < 0) {
+					firstOf.put(keys[i], i);
+				} else {
+					addPair(out, reported, first, i, true);
+				}
+			}
+		}
+
+		// Near: MinHash signatures in parallel, then one sort per band to find equal band hashes.
+		int rows = BAND_ROWS * NUM_BANDS;
+		int[][] signatures = new int[n][];
+		IntStream.range(0, n).parallel().forEach(i -> {
+			if (questionTokens[i].length >= MIN_TOKENS_FOR_NEAR) {
+				signatures[i] = minHash(questionTokens[i], rows);
+			}
+		});
+		for (int band = 0; band < NUM_BANDS; band++) {
+			long[] buckets = new long[n];
+			int count = 0;
+			for (int i = 0; i < n; i++) {
+				if (signatures[i] != null) {
+					int h = Arrays.hashCode(Arrays.copyOfRange(signatures[i], band * BAND_ROWS, (band + 1) * BAND_ROWS));
+					buckets[count++] = ((long) h << 32) | i;
+				}
+			}
+			long[] sorted = Arrays.copyOf(buckets, count);
+			Arrays.parallelSort(sorted);
+			int runStart = 0;
+			for (int i = 1; i <= count; i++) {
+				if (i < count && (sorted[i] >>> 32) == (sorted[runStart] >>> 32)) {
+					continue;
+				}
+				int runEnd = Math.min(i, runStart + MAX_BUCKET_COMPARISONS);
+				for (int a = runStart; a < runEnd; a++) {
+					for (int b = a + 1; b < runEnd; b++) {
+						int x = (int) sorted[a];
+						int y = (int) sorted[b];
+						if (keys[x] != keys[y] && jaccard(questionTokens[x], questionTokens[y]) >= NEAR_DUPLICATE_JACCARD) {
+							addPair(out, reported, x, y, false);
+						}
+					}
+				}
+				runStart = i;
+			}
+		}
+		out.sort((a, b) -> a.first() != b.first() ? Integer.compare(a.first(), b.first()) : Integer.compare(a.second(), b.second()));
+		return List.copyOf(out);
+	}
+
+	private static void addPair(List<Duplicate> out, Set<Long> reported, int x, int y, boolean exact) {
+		int first = Math.min(x, y);
+		int second = Math.max(x, y);
+		if (reported.add(((long) first << 32) | second)) {
+			out.add(new Duplicate(first, second, exact));
+		}
+	}
+
+	private static int[] minHash(int[] tokens, int rows) {
+		int[] sig = new int[rows];
+		Arrays.fill(sig, Integer.MAX_VALUE);
+		for (int token : tokens) {
+			for (int r = 0; r < rows; r++) {
+				long h = (token * 0x9e3779b97f4a7c15L) ^ ((r + 1) * 0xc2b2ae3d27d4eb4fL);
+				h ^= h >>> 29;
+				h *= 0xbf58476d1ce4e5b9L;
+				h ^= h >>> 32;
+				int v = (int) h;
+				if (v < sig[r]) {
+					sig[r] = v;
+				}
+			}
+		}
+		return sig;
+	}
+
+	private static double jaccard(int[] a, int[] b) {
+		int i = 0;
+		int j = 0;
+		int common = 0;
+		while (i < a.length && j < b.length) {
+			if (a[i] == b[j]) {
+				common++;
+				i++;
+				j++;
+			} else if (a[i] < b[j]) {
+				i++;
+			} else {
+				j++;
+			}
+		}
+		int union = a.length + b.length - common;
+		return union == 0 ? 0.0 : (double) common / union;
+	}
+
+	private void logDuplicates(List<TriviaQuestion> qs) {
+		if (duplicates.isEmpty()) {
+			return;
+		}
+		long exact = duplicates.stream().filter(Duplicate::exact).count();
+		StringBuilder examples = new StringBuilder();
+		for (int i = 0; i < Math.min(LOGGED_EXAMPLES, duplicates.size()); i++) {
+			Duplicate d = duplicates.get(i);
+			examples.append(i == 0 ? "" : "; ")
+				.append('#').append(d.first()).append(d.exact() ? " = #" : " ~ #").append(d.second())
+				.append(" \"").append(qs.get(d.second()).question.strip()).append('"');
+		}
+		TriviaMod.LOGGER.warn(
+			"Trivia: questions.json has {} exact and {} near-duplicate question pairs, e.g. {}",
+			exact,
+			duplicates.size() - exact,
+			examples
+		);
+	}
+
+	/**
+	 * Growable int list; indices are added in increasing order, so the result is sorted.
+	 */
+	private static final class Postings {
+		private int[] docs = new int[2];
+		private int size;
+
+		/**
+		 * Adds {@code doc} unless it is already the last entry (a term repeated within one question).
+		 */
+		void addOnce(int doc) {
+			if (size > 0 && docs[size - 1] == doc) {
+				return;
+			}
+			if (size == docs.length) {
+				docs = Arrays.copyOf(docs, size * 2);
+			}
+			docs[size++] = doc;
+		}
+
+		void addAll(Postings other) {
+			if (size + other.size > docs.length) {
+				docs = Arrays.copyOf(docs, Math.max(size + other.size, docs.length * 2));
+			}
+			System.arraycopy(other.docs, 0, docs, size, other.size);
+			size += other.size;
+		}
+
+		int[] toArray() {
+			return size == docs.length ? docs : Arrays.copyOf(docs, size);
+		}
+	}
+}
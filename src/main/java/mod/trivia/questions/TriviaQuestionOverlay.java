@@ -0,0 +1,275 @@
+package mod.trivia.questions;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonWriter;
+import mod.trivia.TriviaMod;
+import mod.trivia.config.TriviaConfigManager;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Append-only journal of in-game question edits (/trivia add, /trivia remove), one JSON object per
+ * line in config/trivia/questions_overlay.jsonl, replayed over questions.json at load.
+ *
+ * Compaction rewrites questions.json from the live bank and empties the journal. Appends and
+ * compaction share one background writer, so an edit made after a compaction snapshot is queued
+ * behind it and never lost. Replay is idempotent (adding a question that already exists is a no-op),
+ * which also covers a crash between replacing questions.json and emptying the journal. Compaction is
+ * skipped if questions.json changed on disk since it was loaded, so a hand edit is never overwritten.
+ */
+final class TriviaQuestionOverlay {
+	private static final Gson GSON = new Gson();
+	private static final Gson PRETTY_GSON = new GsonBuilder().setPrettyPrinting().create();
+	private static final String OP_ADD = "add";
+	private static final String OP_REMOVE = "remove";
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "trivia-questions-writer");
+		t.setDaemon(true);
+		return t;
+	});
+	// Edits not yet compacted into questions.json (server thread).
+	private int pendingOps;
+	// questions.json as last loaded or compacted; null if unknown, which blocks compaction.
+	private volatile FileStamp bankStamp;
+
+	private record FileStamp(long size, long modifiedMillis) {
+		static FileStamp of(Path file) throws IOException {
+			return new FileStamp(Files.size(file), Files.getLastModifiedTime(file).toMillis());
+		}
+	}
+
+	static Path getPath() {
+		return TriviaConfigManager.getConfigDir().resolve("questions_overlay.jsonl");
+	}
+
+	boolean hasPendingOps() {
+		return pendingOps > 0;
+	}
+
+	/**
+	 * Remembers {@code questionsFile}'s size and mtime; call before parsing it.
+	 */
+	void recordBankFile(Path questionsFile) {
+		try {
+			bankStamp = FileStamp.of(questionsFile);
+		} catch (IOException e) {
+			bankStamp = null;
+		}
+	}
+
+	void forgetBankFile() {
+		bankStamp = null;
+	}
+
+	void appendAdd(TriviaQuestion q) {
+		JsonObject op = new JsonObject();
+		op.addProperty("op", OP_ADD);
+		op.add("question", GSON.toJsonTree(q));
+		append(op);
+	}
+
+	/**
+	 * Removes every question with {@code question}'s text (same {@link TriviaQuestion#key()}).
+	 */
+	void appendRemove(String question) {
+		JsonObject op = new JsonObject();
+		op.addProperty("op", OP_REMOVE);
+		op.addProperty("question", question);
+		append(op);
+	}
+
+	private void append(JsonObject op) {
+		pendingOps++;
+		String line = GSON.toJson(op);
+		Path file = getPath();
+		writer.execute(() -> writeLine(file, line));
+	}
+
+	private static void writeLine(Path file, String line) {
+		try {
+			Files.createDirectories(file.getParent());
+			Files.writeString(file, line + "\n", StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+		} catch (IOException e) {
+			TriviaMod.LOGGER.error("Trivia: failed to append to {}; the edit is only in memory: {}", file.getFileName(), e.getMessage());
+		}
+	}
+
+	/**
+	 * Applies the journal to {@code bank} (freshly loaded from questions.json) in place.
+	 */
+	void replay(List<TriviaQuestion> bank) {
+		Path file = getPath();
+		pendingOps = 0;
+		if (Files.notExists(file)) {
+			return;
+		}
+		String content;
+		try {
+			content = Files.readString(file, StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			TriviaMod.LOGGER.error("Trivia: failed to read {}; in-game edits are not applied: {}", file.getFileName(), e.getMessage());
+			return;
+		}
+		if (!content.isEmpty() && !content.endsWith("\n")) {
+			// Terminate a line torn by a crash, so the next edit does not get glued onto it.
+			writer.execute(() -> writeLine(file, ""));
+		}
+		List<String> lines = content.lines().toList();
+
+		List<JsonObject> ops = new ArrayList<>(lines.size());
+		Set<Long> touched = new HashSet<>();
+		for (String line : lines) {
+			if (line.isBlank()) {
+				continue;
+			}
+			try {
+				JsonObject op = JsonParser.parseString(line).getAsJsonObject();
+				kindOf(op);
+				touched.add(TriviaQuestion.keyOf(questionText(op)));
+				ops.add(op);
+			} catch (JsonParseException | IllegalStateException | UnsupportedOperationException e) {
+				// Typically a line torn by a crash mid-append.
+				TriviaMod.LOGGER.warn("Trivia: skipping unreadable line in {}", file.getFileName());
+			}
+		}
+
+		// One pass over the bank for the few keys the journal mentions.
+		Set<Long> inBank = new HashSet<>();
+		for (TriviaQuestion q : bank) {
+			long key = q.key();
+			if (touched.contains(key)) {
+				inBank.add(key);
+			}
+		}
+		Map<Long, TriviaQuestion> added = new LinkedHashMap<>();
+		Set<Long> removedFromBank = new HashSet<>();
+		for (JsonObject op : ops) {
+			String kind = kindOf(op);
+			long key = TriviaQuestion.keyOf(questionText(op));
+			if (OP_ADD.equals(kind)) {
+				TriviaQuestion q = GSON.fromJson(op.get("question"), TriviaQuestion.class);
+				boolean exists = added.containsKey(key) || (inBank.contains(key) && !removedFromBank.contains(key));
+				if (q != null && q.question != null && q.answer != null && !q.question.isBlank() && !exists) {
+					added.put(key, q);
+				}
+			} else if (OP_REMOVE.equals(kind)) {
+				added.remove(key);
+				if (inBank.contains(key)) {
+					removedFromBank.add(key);
+				}
+			}
+		}
+		if (!removedFromBank.isEmpty()) {
+			bank.removeIf(q -> removedFromBank.contains(q.key()));
+		}
+		bank.addAll(added.values());
+		pendingOps = ops.size();
+		if (!ops.isEmpty()) {
+			TriviaMod.LOGGER.info("Trivia: applied {} in-game question edits from {}", ops.size(), file.getFileName());
+		}
+	}
+
+	private static String kindOf(JsonObject op) {
+		return op.has("op") ? op.get("op").getAsString() : "";
+	}
+
+	private static String questionText(JsonObject op) {
+		if (!op.has("question")) {
+			return "";
+		}
+		if (op.get("question").isJsonObject()) {
+			JsonObject q = op.getAsJsonObject("question");
+			return q.has("question") ? q.get("question").getAsString() : "";
+		}
+		return op.get("question").getAsString();
+	}
+
+	/**
+	 * Rewrites {@code questionsFile} from {@code live} (a snapshot of the bank without removed
+	 * questions) in the background, then empties the journal.
+	 */
+	void compact(List<TriviaQuestion> live, Path questionsFile) {
+		int ops = pendingOps;
+		pendingOps = 0;
+		Path journal = getPath();
+		writer.execute(() -> {
+			long start = System.nanoTime();
+			Path tmp = questionsFile.resolveSibling(questionsFile.getFileName() + ".tmp");
+			try {
+				FileStamp expected = bankStamp;
+				if (expected == null || Files.notExists(questionsFile) || !expected.equals(FileStamp.of(questionsFile))) {
+					// The journal is kept; /trivia reload picks up the hand edit and replays it on top.
+					TriviaMod.LOGGER.warn(
+						"Trivia: {} changed on disk since it was loaded; not compacting {} in-game edits until /trivia reload",
+						questionsFile.getFileName(),
+						ops
+					);
+					return;
+				}
+				try (Writer out = Files.newBufferedWriter(tmp, StandardCharsets.UTF_8);
+					JsonWriter json = PRETTY_GSON.newJsonWriter(out)) {
+					json.beginObject();
+					json.name("questions");
+					json.beginArray();
+					for (TriviaQuestion q : live) {
+						PRETTY_GSON.toJson(q, TriviaQuestion.class, json);
+					}
+					json.endArray();
+					json.endObject();
+				}
+				try {
+					Files.move(tmp, questionsFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				} catch (AtomicMoveNotSupportedException e) {
+					Files.move(tmp, questionsFile, StandardCopyOption.REPLACE_EXISTING);
+				}
+				bankStamp = FileStamp.of(questionsFile);
+				Files.deleteIfExists(journal);
+				TriviaMod.LOGGER.info(
+					"Trivia: compacted {} question edits into {} ({} questions, {} ms)",
+					ops,
+					questionsFile.getFileName(),
+					live.size(),
+					(System.nanoTime() - start) / 1_000_000L
+				);
+			} catch (IOException e) {
+				// The journal is kept, so nothing is lost; the next load replays it.
+				TriviaMod.LOGGER.error("Trivia: failed to compact question edits: {}", e.getMessage());
+			}
+		});
+	}
+
+	/**
+	 * Waits (bounded) for queued writes, e.g. before re-reading the files or on shutdown.
+	 */
+	void flush() {
+		try {
+			writer.submit(() -> {
+			}).get(30, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			TriviaMod.LOGGER.warn("Trivia: question edit flush did not finish: {}", e.getMessage());
+		}
+	}
+}
@@ -0,0 +1,305 @@
+package mod.trivia.questions;
+
+import mod.trivia.TriviaMod;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.IntPredicate;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
+import java.util.random.RandomGenerator;
+
+/**
+ * Weighted question picks in O(1) via Walker's alias method (Vose's construction).
+ *
+ * The table is built in O(n) from the bank and the weights, so it is only rebuilt when either changes.
+ * Questions authored in-game are absorbed in O(1): an appended question goes to a small tail list
+ * picked with probability proportional to its total weight, and a removed one keeps its column but
+ * is rejected when drawn. Once the tail or the removed weight grows too large, {@link #append} and
+ * {@link #remove} report that the table should be rebuilt. Excluded questions (no-repeat window) are
+ * handled by rejection too: with a small window and a large bank a rejected draw is rare, and after a
+ * few misses we fall back to one weighted scan over the remaining candidates.
+ */
+public final class TriviaQuestionSampler {
+	private static final int MAX_REJECTIONS = 32;
+	private static final int MIN_TAIL_CAPACITY = 64;
+
+	public static final TriviaQuestionSampler EMPTY = new TriviaQuestionSampler(new double[0], new int[0], new double[0], 0.0);
+
+	private final double[] prob;
+	private final int[] alias;
+	// Current weight per table index; a removed question's entry is set to 0.
+	private final double[] weights;
+	private final double builtWeight;
+	private double tableWeight;
+	// Questions appended after the build, at indices weights.length and up.
+	private double[] tailWeights = new double[0];
+	private int tailSize;
+	private double tailWeight;
+
+	private TriviaQuestionSampler(double[] prob, int[] alias, double[] weights, double totalWeight) {
+		this.prob = prob;
+		this.alias = alias;
+		this.weights = weights;
+		this.builtWeight = totalWeight;
+		this.tableWeight = totalWeight;
+	}
+
+	/**
+	 * @param weightOf non-negative weight per question index; if every weight is 0 the picks are uniform
+	 */
+	public static TriviaQuestionSampler build(int n, IntToDoubleFunction weightOf) {
+		return build(n, weightOf, i -> false);
+	}
+
+	/**
+	 * @param weightOf non-negative weight per question index; if every weight is 0 the picks are uniform
+	 * over the questions not {@code removed}
+	 * @param removed questions that are never picked, even by the uniform fallback
+	 */
+	public static TriviaQuestionSampler build(int n, IntToDoubleFunction weightOf, IntPredicate removed) {
+		if (n == 0) {
+			return EMPTY;
+		}
+		double[] weights = new double[n];
+		double total = 0;
+		int heaviest = 0;
+		for (int i = 0; i < n; i++) {
+			double w = weightOf.applyAsDouble(i);
+			weights[i] = Double.isFinite(w) && w > 0 ? w : 0.0;
+			total += weights[i];
+			if (weights[i] > weights[heaviest]) {
+				heaviest = i;
+			}
+		}
+		if (total <= 0) {
+			for (int i = 0; i < n; i++) {
+				weights[i] = removed.test(i) ? 0.0 : 1.0;
+				total += weights[i];
+				if (weights[i] > weights[heaviest]) {
+					heaviest = i;
+				}
+			}
+			if (total <= 0) {
+				return EMPTY;
+			}
+			TriviaMod.LOGGER.warn("Trivia: every question has weight 0; picking uniformly");
+		}
+
+		// Vose: split scaled probabilities into under- and over-full columns and pair them up.
+		double[] prob = new double[n];
+		int[] alias = new int[n];
+		double[] scaled = new double[n];
+		int[] small = new int[n];
+		int[] large = new int[n];
+		int smallCount = 0;
+		int largeCount = 0;
+		for (int i = 0; i < n; i++) {
+			scaled[i] = weights[i] * n / total;
+			if (scaled[i] < 1.0) {
+				small[smallCount++] = i;
+			} else {
+				large[largeCount++] = i;
+			}
+		}
+		while (smallCount > 0 && largeCount > 0) {
+			int s = small[--smallCount];
+			int l = large[--largeCount];
+			prob[s] = scaled[s];
+			alias[s] = l;
+			scaled[l] = (scaled[l] + scaled[s]) - 1.0;
+			if (scaled[l] < 1.0) {
+				small[smallCount++] = l;
+			} else {
+				large[largeCount++] = l;
+			}
+		}
+		// Leftovers are full columns (up to rounding error).
+		while (largeCount > 0) {
+			int l = large[--largeCount];
+			prob[l] = 1.0;
+			alias[l] = l;
+		}
+		while (smallCount > 0) {
+			int s = small[--smallCount];
+			prob[s] = 1.0;
+			// Never let rounding make a zero-weight question pickable.
+			alias[s] = weights[s] > 0 ? s : heaviest;
+			if (weights[s] <= 0) {
+				prob[s] = 0.0;
+			}
+		}
+		return new TriviaQuestionSampler(prob, alias, weights, total);
+	}
+
+	/**
+	 * The configured weight of a question: its own weight times its category and difficulty
+	 * multipliers (keys matched case-insensitively; missing means 1).
+	 */
+	public static ToDoubleFunction<TriviaQuestion> configuredWeight(Map<String, Double> categoryWeights, Map<String, Double> difficultyWeights) {
+		Map<String, Double> byCategory = lowerCaseKeys(categoryWeights);
+		Map<String, Double> byDifficulty = lowerCaseKeys(difficultyWeights);
+		if (byCategory.isEmpty() && byDifficulty.isEmpty()) {
+			return TriviaQuestion::baseWeight;
+		}
+		return q -> q.baseWeight() * multiplier(byCategory, q.category) * multiplier(byDifficulty, q.difficulty);
+	}
+
+	private static double multiplier(Map<String, Double> weights, String value) {
+		if (value == null || weights.isEmpty()) {
+			return 1.0;
+		}
+		Double w = weights.get(value.strip().toLowerCase(Locale.ROOT));
+		return w == null ? 1.0 : Math.max(0.0, w);
+	}
+
+	private static Map<String, Double> lowerCaseKeys(Map<String, Double> weights) {
+		Map<String, Double> out = new HashMap<>();
+		if (weights != null) {
+			weights.forEach((k, v) -> {
+				if (k != null && v != null) {
+					out.put(k.strip().toLowerCase(Locale.ROOT), v);
+				}
+			});
+		}
+		return out;
+	}
+
+	public int size() {
+		return prob.length + tailSize;
+	}
+
+	/**
+	 * Adds a question at index {@link #size()} in O(1).
+	 *
+	 * @return false if the table should be rebuilt instead (the question was not added)
+	 */
+	public boolean append(double weight) {
+		if (this == EMPTY || tailSize >= Math.max(MIN_TAIL_CAPACITY, prob.length / 16)) {
+			return false;
+		}
+		if (tailSize == tailWeights.length) {
+			tailWeights = Arrays.copyOf(tailWeights, Math.max(8, tailSize * 2));
+		}
+		double w = Double.isFinite(weight) && weight > 0 ? weight : 0.0;
+		tailWeights[tailSize++] = w;
+		tailWeight += w;
+		return true;
+	}
+
+	/**
+	 * Makes question {@code index} unpickable in O(1).
+	 *
+	 * @return false if the table should be rebuilt (the question is removed either way)
+	 */
+	public boolean remove(int index) {
+		if (index < 0 || index >= size()) {
+			return true;
+		}
+		if (index >= prob.length) {
+			int t = index - prob.length;
+			tailWeight = Math.max(0.0, tailWeight - tailWeights[t]);
+			tailWeights[t] = 0.0;
+			return true;
+		}
+		tableWeight = Math.max(0.0, tableWeight - weights[index]);
+		weights[index] = 0.0;
+		// Past this, most alias draws would be rejected.
+		return tableWeight >= builtWeight / 2;
+	}
+
+	/**
+	 * Share of all picks that go to question {@code index}, 0..1.
+	 */
+	public double chance(int index) {
+		double total = tableWeight + tailWeight;
+		return total <= 0 ? 0.0 : weightOf(index) / total;
+	}
+
+	/**
+	 * @return a weighted random index, or -1 if the table is empty
+	 */
+	public int sample(RandomGenerator rng) {
+		int n = prob.length;
+		if (n == 0 && tailSize == 0) {
+			return -1;
+		}
+		if (tailWeight > 0 && rng.nextDouble() * (tableWeight + tailWeight) >= tableWeight) {
+			return prob.length + scan(tailWeights, tailSize, rng.nextDouble() * tailWeight);
+		}
+		if (n == 0) {
+			return -1;
+		}
+		for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+			int i = rng.nextInt(n);
+			int picked = rng.nextDouble() < prob[i] ? i : alias[i];
+			if (weights[picked] > 0) {
+				return picked;
+			}
+		}
+		return tableWeight > 0 ? scan(weights, n, rng.nextDouble() * tableWeight) : -1;
+	}
+
+	private double weightOf(int index) {
+		return index < prob.length ? weights[index] : tailWeights[index - prob.length];
+	}
+
+	private static int scan(double[] w, int n, double target) {
+		int last = 0;
+		for (int i = 0; i < n; i++) {
+			if (w[i] <= 0) {
+				continue;
+			}
+			last = i;
+			target -= w[i];
+			if (target < 0) {
+				return i;
+			}
+		}
+		return last;
+	}
+
+	/**
+	 * A weighted pick among indices not matched by {@code excluded}.
+	 *
+	 * @return the index, or -1 if every question with weight is excluded
+	 */
+	public int sample(RandomGenerator rng, IntPredicate excluded) {
+		for (int attempt = 0; attempt < MAX_REJECTIONS; attempt++) {
+			int i = sample(rng);
+			if (i < 0) {
+				return -1;
+			}
+			if (!excluded.test(i)) {
+				return i;
+			}
+		}
+		int n = size();
+		double remaining = 0;
+		for (int i = 0; i < n; i++) {
+			double w = weightOf(i);
+			if (w > 0 && !excluded.test(i)) {
+				remaining += w;
+			}
+		}
+		if (remaining <= 0) {
+			return -1;
+		}
+		double target = rng.nextDouble() * remaining;
+		int last = -1;
+		for (int i = 0; i < n; i++) {
+			double w = weightOf(i);
+			if (w <= 0 || excluded.test(i)) {
+				continue;
+			}
+			last = i;
+			target -= w;
+			if (target < 0) {
+				return i;
+			}
+		}
+		return last;
+	}
+}
@@ -0,0 +1,133 @@
+package mod.trivia.questions;
+
+import mod.trivia.TriviaMod;
+import mod.trivia.config.TriviaConfigManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Historical statistics for one question, produced offline from the round journal and stored in
+ * config/trivia/question_stats.bin keyed by {@link TriviaQuestion#key()}.
+ *
+ * @param participants players who guessed in rounds with this question (summed over rounds)
+ * @param solved       players who solved it (summed over rounds, team solves included)
+ * @param medianSolveMillis time from question to correct answer, or -1 with no timed solves
+ * @param commonWrong  most frequent wrong answers (loosely normalized), most frequent first
+ */
+public record TriviaQuestionStats(
+	long key,
+	int rounds,
+	int participants,
+	int solved,
+	int aiChecks,
+	int aiAccepted,
+	int medianSolveMillis,
+	int p90SolveMillis,
+	List<WrongAnswer> commonWrong
+) {
+	private static final int MAGIC = 0x54515354; // "TQST"
+	private static final int FILE_VERSION = 1;
+
+	public record WrongAnswer(String answer, int count) {
+	}
+
+	/**
+	 * Share of participants that solved, 0..1 (0 when nobody played it).
+	 */
+	public double solveRate() {
+		return participants <= 0 ? 0.0 : Math.min(1.0, (double) solved / participants);
+	}
+
+	public double aiAcceptRate() {
+		return aiChecks <= 0 ? 0.0 : (double) aiAccepted / aiChecks;
+	}
+
+	public static Path getPath() {
+		return TriviaConfigManager.getConfigDir().resolve("question_stats.bin");
+	}
+
+	/**
+	 * @return stats by question key; empty if the file is missing or unreadable
+	 */
+	static Map<Long, TriviaQuestionStats> load(Path file) {
+		Map<Long, TriviaQuestionStats> out = new HashMap<>();
+		if (Files.notExists(file)) {
+			return out;
+		}
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file)))) {
+			if (in.readInt() != MAGIC || in.readInt() != FILE_VERSION) {
+				TriviaMod.LOGGER.warn("Trivia: unrecognized {}; ignoring it", file.getFileName());
+				return out;
+			}
+			in.readLong(); // generated at
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				TriviaQuestionStats s = read(in);
+				out.put(s.key(), s);
+			}
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to read {}: {}", file.getFileName(), e.getMessage());
+			out.clear();
+		}
+		return out;
+	}
+
+	public static void save(Path file, Collection<TriviaQuestionStats> stats) throws IOException {
+		ByteArrayOutputStream buf = new ByteArrayOutputStream(64 + stats.size() * 64);
+		try (DataOutputStream out = new DataOutputStream(buf)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FILE_VERSION);
+			out.writeLong(System.currentTimeMillis());
+			out.writeInt(stats.size());
+			for (TriviaQuestionStats s : stats) {
+				s.write(out);
+			}
+		}
+		Files.createDirectories(file.getParent());
+		TriviaConfigManager.writeAtomic(file, buf.toByteArray());
+	}
+
+	private void write(DataOutputStream out) throws IOException {
+		out.writeLong(key);
+		out.writeInt(rounds);
+		out.writeInt(participants);
+		out.writeInt(solved);
+		out.writeInt(aiChecks);
+		out.writeInt(aiAccepted);
+		out.writeInt(medianSolveMillis);
+		out.writeInt(p90SolveMillis);
+		out.writeByte(commonWrong.size());
+		for (WrongAnswer w : commonWrong) {
+			out.writeUTF(w.answer());
+			out.writeInt(w.count());
+		}
+	}
+
+	private static TriviaQuestionStats read(DataInputStream in) throws IOException {
+		long key = in.readLong();
+		int rounds = in.readInt();
+		int participants = in.readInt();
+		int solved = in.readInt();
+		int aiChecks = in.readInt();
+		int aiAccepted = in.readInt();
+		int median = in.readInt();
+		int p90 = in.readInt();
+		int wrongCount = in.readUnsignedByte();
+		List<WrongAnswer> wrong = new ArrayList<>(wrongCount);
+		for (int i = 0; i < wrongCount; i++) {
+			wrong.add(new WrongAnswer(in.readUTF(), in.readInt()));
+		}
+		return new TriviaQuestionStats(key, rounds, participants, solved, aiChecks, aiAccepted, median, p90, List.copyOf(wrong));
+	}
+}
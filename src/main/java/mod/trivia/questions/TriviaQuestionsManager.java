@@ -15,43 +15,242 @@ import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.IntToDoubleFunction;
+import java.util.function.ToDoubleFunction;
 
 public final class TriviaQuestionsManager {
 	private static final Gson GSON = new GsonBuilder().setPrettyPrinting().create();
 	private static final String DEFAULT_QUESTIONS_RESOURCE = "trivia/default_questions.json";
 
+	// Positions are stable until the next reload: in-game removals leave a tombstone in `removed`.
 	private List<TriviaQuestion> questions = new ArrayList<>();
+	private final BitSet removed = new BitSet();
+	private int liveCount;
+	private final TriviaQuestionOverlay overlay = new TriviaQuestionOverlay();
+	// False if questions.json could not be parsed; compaction must then never overwrite it.
+	private boolean bankFileLoaded;
+	private Map<Long, TriviaQuestionStats> questionStats = Map.of();
+	private ToDoubleFunction<TriviaQuestion> selectionWeight = TriviaQuestion::baseWeight;
+	private IntToDoubleFunction selectionBias;
+	private int version;
+	// Built lazily on the first pick after the bank or the weights change.
+	private TriviaQuestionSampler sampler;
+	private TriviaQuestionIndex index = TriviaQuestionIndex.build(List.of());
 
 	public Path getQuestionsPath() {
 		return TriviaConfigManager.getConfigDir().resolve("questions.json");
 	}
 
+	/**
+	 * Every question by position, including ones removed in-game since the last reload (see
+	 * {@link #isRemoved}).
+	 */
 	public List<TriviaQuestion> getQuestions() {
 		return Collections.unmodifiableList(questions);
 	}
 
+	public int getLiveCount() {
+		return liveCount;
+	}
+
+	public boolean isRemoved(int index) {
+		return removed.get(index);
+	}
+
 	public void reload() {
-		this.questions = loadOrCreate();
+		// Let queued edits reach the journal before it is replayed.
+		overlay.flush();
+		List<TriviaQuestion> loaded = new ArrayList<>(loadOrCreate());
+		overlay.replay(loaded);
+		this.questions = loaded;
+		this.removed.clear();
+		this.liveCount = loaded.size();
+		this.sampler = null;
+		this.index = TriviaQuestionIndex.build(questions);
+		reloadStats();
+	}
+
+	/**
+	 * Appends {@code q} to the live bank, its search index and the selection table, and records it in
+	 * the edit journal. Does not touch running rounds or change {@link #getVersion()}.
+	 *
+	 * @return the new question's position
+	 */
+	public int addQuestion(TriviaQuestion q) {
+		int i = questions.size();
+		questions.add(q);
+		liveCount++;
+		index.add(i, q);
+		if (sampler != null && !sampler.append(weightOf(i))) {
+			sampler = null;
+		}
+		overlay.appendAdd(q);
+		return i;
+	}
+
+	/**
+	 * Removes the question at position {@code i}, and every other live copy with the same text, from
+	 * selection and search (a round already asking one runs to the end) and records the removal in the
+	 * edit journal. The journal removes by text, so copies are removed now rather than at the next load.
+	 *
+	 * @return number of questions removed (0 if there is no such live question)
+	 */
+	public int removeQuestion(int i) {
+		if (i < 0 || i >= questions.size() || removed.get(i)) {
+			return 0;
+		}
+		String question = questions.get(i).question;
+		int count = 0;
+		for (int at = i; at >= 0; at = findLive(question)) {
+			tombstone(at);
+			count++;
+		}
+		overlay.appendRemove(question);
+		return count;
+	}
+
+	private void tombstone(int i) {
+		removed.set(i);
+		liveCount--;
+		index.remove(i);
+		if (sampler != null && !sampler.remove(i)) {
+			sampler = null;
+		}
+	}
+
+	/**
+	 * Position of a live question with the same text as {@code question}, or -1.
+	 */
+	public int findLive(String question) {
+		long key = TriviaQuestion.keyOf(question);
+		return index.findFirst(question, i -> !removed.get(i) && questions.get(i).key() == key, () -> {
+			for (int i = 0; i < questions.size(); i++) {
+				if (!removed.get(i) && questions.get(i).key() == key) {
+					return i;
+				}
+			}
+			return -1;
+		});
+	}
+
+	/**
+	 * Rewrites questions.json with the in-game edits in the background, if there are any and the file
+	 * has not been edited by hand since it was loaded.
+	 *
+	 * @return true if a compaction was started
+	 */
+	public boolean compactEdits() {
+		if (!overlay.hasPendingOps() || !bankFileLoaded) {
+			return false;
+		}
+		List<TriviaQuestion> live = new ArrayList<>(liveCount);
+		for (int i = 0; i < questions.size(); i++) {
+			if (!removed.get(i)) {
+				live.add(questions.get(i));
+			}
+		}
+		overlay.compact(live, getQuestionsPath());
+		return true;
+	}
+
+	/**
+	 * Waits (bounded) for queued edit writes, e.g. on server shutdown.
+	 */
+	public void flush() {
+		overlay.flush();
+	}
+
+	/**
+	 * Search index over {@link #getQuestions()} (same indices).
+	 */
+	public TriviaQuestionIndex getIndex() {
+		return index;
+	}
+
+	/**
+	 * Changes whenever the bank or its stats are reloaded; question indices are only comparable
+	 * between equal versions.
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Weighted sampler over {@link #getQuestions()} (same indices).
+	 */
+	public TriviaQuestionSampler getSampler() {
+		if (sampler == null) {
+			long start = System.nanoTime();
+			sampler = TriviaQuestionSampler.build(questions.size(), this::weightOf, removed::get);
+			TriviaMod.LOGGER.debug("Trivia: built selection table for {} questions in {} ms", questions.size(), (System.nanoTime() - start) / 1_000_000L);
+		}
+		return sampler;
+	}
+
+	private double weightOf(int i) {
+		if (removed.get(i)) {
+			return 0.0;
+		}
+		double w = selectionWeight.applyAsDouble(questions.get(i));
+		return selectionBias == null ? w : w * selectionBias.applyAsDouble(i);
+	}
+
+	public void setSelectionWeight(ToDoubleFunction<TriviaQuestion> weight) {
+		this.selectionWeight = weight;
+		this.sampler = null;
+	}
+
+	/**
+	 * Extra per-index multiplier on top of the configured weight (adaptive difficulty); null for none.
+	 * The sampler is rebuilt on the next pick.
+	 */
+	public void setSelectionBias(IntToDoubleFunction bias) {
+		this.selectionBias = bias;
+		this.sampler = null;
+	}
+
+	/**
+	 * Historical stats for {@code q} from the last analytics run, or null if it has none.
+	 */
+	public TriviaQuestionStats getStats(TriviaQuestion q) {
+		return q == null ? null : questionStats.get(q.key());
+	}
+
+	/**
+	 * Re-reads question_stats.bin only (after an analytics run); the bank itself is untouched.
+	 */
+	public void reloadStats() {
+		this.questionStats = TriviaQuestionStats.load(TriviaQuestionStats.getPath());
+		version++;
+		if (!questionStats.isEmpty()) {
+			TriviaMod.LOGGER.info("Trivia: loaded history for {} questions", questionStats.size());
+		}
 	}
 
 	private List<TriviaQuestion> loadOrCreate() {
 		Path file = getQuestionsPath();
+		bankFileLoaded = false;
 		try {
 			Files.createDirectories(file.getParent());
 			if (Files.notExists(file)) {
 				writeDefaultResource(DEFAULT_QUESTIONS_RESOURCE, file);
 			}
+			overlay.recordBankFile(file);
 			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
 				JsonObject root = JsonParser.parseReader(reader).getAsJsonObject();
 				if (!root.has("questions")) {
+					bankFileLoaded = true;
 					return List.of();
 				}
 				List<TriviaQuestion> loaded = GSON.fromJson(
 					root.get("questions"),
 					new TypeToken<List<TriviaQuestion>>() { }.getType()
 				);
+				bankFileLoaded = true;
 				if (loaded == null) {
 					return List.of();
 				}
@@ -59,6 +258,7 @@ public final class TriviaQuestionsManager {
 				return loaded;
 			}
 		} catch (Exception e) {
+			overlay.forgetBankFile();
 			TriviaMod.LOGGER.error("Failed to load questions", e);
 			return List.of();
 		}
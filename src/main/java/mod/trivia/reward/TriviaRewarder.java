@@ -17,7 +17,10 @@ import java.util.Set;
 import java.util.random.RandomGenerator;
 
 public final class TriviaRewarder {
-	public record RewardResult(int count, String itemName) {
+	/**
+	 * @param itemId registry id of the item, e.g. "minecraft:stone"
+	 */
+	public record RewardResult(int count, String itemName, String itemId) {
 	}
 
 	private List<Item> rewardPool = List.of();
@@ -74,6 +77,6 @@ public final class TriviaRewarder {
 			player.dropItem(stack, false);
 		}
 		String nameText = preview.getName().getString();
-		return new RewardResult(count, nameText);
+		return new RewardResult(count, nameText, Registries.ITEM.getId(item).toString());
 	}
 }
\ No newline at end of file
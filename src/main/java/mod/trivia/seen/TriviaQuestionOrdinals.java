@@ -0,0 +1,186 @@
+package mod.trivia.seen;
+
+import mod.trivia.TriviaMod;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Stable small ints for questions, so seen-sets survive bank reloads, reordering and edits elsewhere
+ * in the bank.
+ *
+ * Each {@link mod.trivia.questions.TriviaQuestion#key()} gets the next ordinal the first time it is
+ * seen, and ordinals are never reused. The registry is an append-only file of keys (ordinal = position)
+ * held in memory as an open-addressing long-to-int table, so a million-question bank costs ~24 MB
+ * rather than a boxed map several times that. Server thread only; new keys are handed back through
+ * {@link #drainNew()} for the caller to append on its writer thread.
+ */
+final class TriviaQuestionOrdinals {
+	private static final int MAGIC = 0x54514f52; // "TQOR"
+	private static final int FILE_VERSION = 1;
+	private static final int HEADER_BYTES = 8;
+	private static final long EMPTY = 0L;
+
+	// Key 0 marks an empty slot; the (astronomically unlikely) real key 0 is kept aside.
+	private long[] slotKeys = new long[1024];
+	private int[] slotOrdinals = new int[1024];
+	private int zeroKeyOrdinal = -1;
+	private int count;
+	private long[] pending = new long[16];
+	private int pendingCount;
+
+	int size() {
+		return count;
+	}
+
+	/**
+	 * @return the ordinal of {@code key}, assigning the next one if it is new
+	 */
+	int ordinalOf(long key) {
+		int existing = find(key);
+		if (existing >= 0) {
+			return existing;
+		}
+		int ordinal = count;
+		put(key, ordinal);
+		if (pendingCount == pending.length) {
+			pending = Arrays.copyOf(pending, pendingCount * 2);
+		}
+		pending[pendingCount++] = key;
+		return ordinal;
+	}
+
+	/**
+	 * @return the file bytes for keys assigned since the last call (empty if none)
+	 */
+	byte[] drainNew() {
+		if (pendingCount == 0) {
+			return new byte[0];
+		}
+		ByteBuffer buf = ByteBuffer.allocate(pendingCount * Long.BYTES);
+		for (int i = 0; i < pendingCount; i++) {
+			buf.putLong(pending[i]);
+		}
+		pendingCount = 0;
+		return buf.array();
+	}
+
+	/**
+	 * Loads the registry; a torn trailing key is dropped.
+	 *
+	 * @return false if the file exists but is not a registry (it must then not be appended to)
+	 */
+	boolean load(Path file) {
+		if (Files.notExists(file)) {
+			return true;
+		}
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+			ByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+			if (buf.remaining() < HEADER_BYTES || buf.getInt() != MAGIC || buf.getInt() != FILE_VERSION) {
+				TriviaMod.LOGGER.warn("Trivia: unrecognized {}; seen-question history is disabled", file.getFileName());
+				return false;
+			}
+			while (buf.remaining() >= Long.BYTES) {
+				long key = buf.getLong();
+				if (find(key) < 0) {
+					put(key, count);
+				}
+			}
+			return true;
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to read {}: {}", file.getFileName(), e.getMessage());
+			return false;
+		}
+	}
+
+	/**
+	 * Appends {@code keys} (from {@link #drainNew()}), writing the header first for a new file.
+	 */
+	static void append(Path file, byte[] keys) throws IOException {
+		Files.createDirectories(file.getParent());
+		try (FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+			long size = ch.size();
+			if (size < HEADER_BYTES) {
+				ByteArrayOutputStream header = new ByteArrayOutputStream(HEADER_BYTES);
+				try (DataOutputStream out = new DataOutputStream(header)) {
+					out.writeInt(MAGIC);
+					out.writeInt(FILE_VERSION);
+				}
+				ch.truncate(0);
+				writeFully(ch, ByteBuffer.wrap(header.toByteArray()), 0);
+				size = HEADER_BYTES;
+			}
+			// Drop a torn key from an interrupted append so positions stay aligned with ordinals.
+			size -= (size - HEADER_BYTES) % Long.BYTES;
+			writeFully(ch, ByteBuffer.wrap(keys), size);
+		}
+	}
+
+	private static void writeFully(FileChannel ch, ByteBuffer buf, long position) throws IOException {
+		while (buf.hasRemaining()) {
+			position += ch.write(buf, position);
+		}
+	}
+
+	private int find(long key) {
+		if (key == EMPTY) {
+			return zeroKeyOrdinal;
+		}
+		int mask = slotKeys.length - 1;
+		for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+			long k = slotKeys[i];
+			if (k == key) {
+				return slotOrdinals[i];
+			}
+			if (k == EMPTY) {
+				return -1;
+			}
+		}
+	}
+
+	private void put(long key, int ordinal) {
+		count++;
+		if (key == EMPTY) {
+			zeroKeyOrdinal = ordinal;
+			return;
+		}
+		if (count * 2 > slotKeys.length) {
+			grow();
+		}
+		insert(slotKeys, slotOrdinals, key, ordinal);
+	}
+
+	private void grow() {
+		long[] keys = new long[slotKeys.length * 2];
+		int[] ordinals = new int[keys.length];
+		for (int i = 0; i < slotKeys.length; i++) {
+			if (slotKeys[i] != EMPTY) {
+				insert(keys, ordinals, slotKeys[i], slotOrdinals[i]);
+			}
+		}
+		slotKeys = keys;
+		slotOrdinals = ordinals;
+	}
+
+	private static void insert(long[] keys, int[] ordinals, long key, int ordinal) {
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		ordinals[i] = ordinal;
+	}
+
+	private static int mix(long key) {
+		long h = key * 0x9e3779b97f4a7c15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,203 @@
+package mod.trivia.seen;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Compressed set of non-negative ints in the style of a Roaring bitmap.
+ *
+ * Values are split by their high 16 bits into containers. A container holds its low 16 bits as a
+ * sorted char array while small (2 bytes per value) and switches to a 64 Kbit bitmap (8 KiB) once it
+ * would hold more than 4096 values, so a player who has seen a few thousand questions of a
+ * million-question bank costs a few KiB.
+ */
+public final class TriviaSeenSet {
+	private static final int ARRAY_MAX = 4096;
+	private static final int BITMAP_WORDS = 1024;
+
+	private static final class Container {
+		private char[] array = new char[4];
+		private long[] bitmap;
+		private int cardinality;
+
+		boolean contains(char low) {
+			if (bitmap != null) {
+				return (bitmap[low >>> 6] & (1L << low)) != 0;
+			}
+			return Arrays.binarySearch(array, 0, cardinality, low) >= 0;
+		}
+
+		boolean add(char low) {
+			if (bitmap != null) {
+				long bit = 1L << low;
+				if ((bitmap[low >>> 6] & bit) != 0) {
+					return false;
+				}
+				bitmap[low >>> 6] |= bit;
+				cardinality++;
+				return true;
+			}
+			int pos = Arrays.binarySearch(array, 0, cardinality, low);
+			if (pos >= 0) {
+				return false;
+			}
+			if (cardinality >= ARRAY_MAX) {
+				toBitmap();
+				return add(low);
+			}
+			pos = -pos - 1;
+			if (cardinality == array.length) {
+				array = Arrays.copyOf(array, Math.min(ARRAY_MAX, array.length * 2));
+			}
+			System.arraycopy(array, pos, array, pos + 1, cardinality - pos);
+			array[pos] = low;
+			cardinality++;
+			return true;
+		}
+
+		void or(Container other) {
+			if (other.bitmap == null) {
+				for (int i = 0; i < other.cardinality; i++) {
+					add(other.array[i]);
+				}
+				return;
+			}
+			if (bitmap == null) {
+				toBitmap();
+			}
+			int count = 0;
+			for (int i = 0; i < BITMAP_WORDS; i++) {
+				bitmap[i] |= other.bitmap[i];
+				count += Long.bitCount(bitmap[i]);
+			}
+			cardinality = count;
+		}
+
+		private void toBitmap() {
+			bitmap = new long[BITMAP_WORDS];
+			for (int i = 0; i < cardinality; i++) {
+				char low = array[i];
+				bitmap[low >>> 6] |= 1L << low;
+			}
+			array = null;
+		}
+	}
+
+	private char[] keys = new char[0];
+	private Container[] containers = new Container[0];
+	private int size;
+
+	public boolean contains(int value) {
+		if (value < 0) {
+			return false;
+		}
+		int i = indexOf((char) (value >>> 16));
+		return i >= 0 && containers[i].contains((char) value);
+	}
+
+	/**
+	 * @return true if {@code value} was not in the set yet
+	 */
+	public boolean add(int value) {
+		if (value < 0) {
+			return false;
+		}
+		return containerFor((char) (value >>> 16)).add((char) value);
+	}
+
+	/**
+	 * Adds every value of {@code other} (bitmap containers are merged word by word).
+	 */
+	public void or(TriviaSeenSet other) {
+		for (int i = 0; i < other.size; i++) {
+			containerFor(other.keys[i]).or(other.containers[i]);
+		}
+	}
+
+	public int cardinality() {
+		int total = 0;
+		for (int i = 0; i < size; i++) {
+			total += containers[i].cardinality;
+		}
+		return total;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void clear() {
+		Arrays.fill(containers, 0, size, null);
+		size = 0;
+	}
+
+	private int indexOf(char key) {
+		return Arrays.binarySearch(keys, 0, size, key);
+	}
+
+	private Container containerFor(char key) {
+		int i = indexOf(key);
+		if (i >= 0) {
+			return containers[i];
+		}
+		i = -i - 1;
+		if (size == keys.length) {
+			int cap = Math.max(4, size * 2);
+			keys = Arrays.copyOf(keys, cap);
+			containers = Arrays.copyOf(containers, cap);
+		}
+		System.arraycopy(keys, i, keys, i + 1, size - i);
+		System.arraycopy(containers, i, containers, i + 1, size - i);
+		keys[i] = key;
+		Container c = new Container();
+		containers[i] = c;
+		size++;
+		return c;
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeInt(size);
+		for (int i = 0; i < size; i++) {
+			Container c = containers[i];
+			out.writeChar(keys[i]);
+			if (c.bitmap != null) {
+				out.writeByte(1);
+				for (long word : c.bitmap) {
+					out.writeLong(word);
+				}
+			} else {
+				out.writeByte(0);
+				out.writeShort(c.cardinality);
+				for (int j = 0; j < c.cardinality; j++) {
+					out.writeChar(c.array[j]);
+				}
+			}
+		}
+	}
+
+	static TriviaSeenSet read(DataInputStream in) throws IOException {
+		TriviaSeenSet set = new TriviaSeenSet();
+		int count = in.readInt();
+		for (int i = 0; i < count; i++) {
+			char key = in.readChar();
+			Container c = set.containerFor(key);
+			if (in.readByte() == 1) {
+				c.toBitmap();
+				int cardinality = 0;
+				for (int w = 0; w < BITMAP_WORDS; w++) {
+					c.bitmap[w] = in.readLong();
+					cardinality += Long.bitCount(c.bitmap[w]);
+				}
+				c.cardinality = cardinality;
+			} else {
+				int n = in.readUnsignedShort();
+				for (int j = 0; j < n; j++) {
+					c.add(in.readChar());
+				}
+			}
+		}
+		return set;
+	}
+}
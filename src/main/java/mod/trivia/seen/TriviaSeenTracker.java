@@ -0,0 +1,306 @@
+package mod.trivia.seen;
+
+import mod.trivia.TriviaMod;
+import mod.trivia.config.TriviaConfig;
+import mod.trivia.config.TriviaConfigManager;
+import mod.trivia.questions.TriviaQuestion;
+import mod.trivia.questions.TriviaQuestionSampler;
+import mod.trivia.questions.TriviaQuestionsManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntPredicate;
+import java.util.random.RandomGenerator;
+
+/**
+ * Which questions each player has already been asked, so rounds can prefer questions nobody in the
+ * channel has seen.
+ *
+ * Each player's history is a {@link TriviaSeenSet} over question ordinals (see
+ * {@link TriviaQuestionOrdinals}), stored in config/trivia/seen/&lt;uuid&gt;.bin. Sets are loaded on
+ * first use and dropped when the player leaves, so memory scales with online players. At pick time
+ * the online players' sets are OR-ed into one union; questions outside it are unseen by everyone.
+ * When the union covers every candidate, the pick falls back to the fewest viewers among a few
+ * weighted draws. Files are written by a background thread. Server thread only otherwise.
+ */
+public final class TriviaSeenTracker {
+	private static final int MAGIC = 0x54534545; // "TSEE"
+	private static final int FILE_VERSION = 1;
+	private static final int FALLBACK_DRAWS = 8;
+	private static final int SAVE_EVERY_ROUNDS = 10;
+
+	private final TriviaQuestionOrdinals ordinals = new TriviaQuestionOrdinals();
+	private boolean ordinalsLoaded;
+	// Cleared if the registry cannot be read or appended to: saved ordinals would then mean different
+	// questions after a restart. Once cleared, no more sets are written (checked again on the writer).
+	private volatile boolean usable = true;
+	private int bankVersion = -1;
+	private int[] ordinalOfIndex = new int[0];
+
+	private final Map<UUID, TriviaSeenSet> sets = new HashMap<>();
+	private final Set<UUID> dirty = new HashSet<>();
+	private final TriviaSeenSet union = new TriviaSeenSet();
+	private int roundsSinceSave;
+
+	// Written sets not yet on disk, so a quick rejoin does not read a stale file.
+	private final Map<UUID, byte[]> pendingWrites = new ConcurrentHashMap<>();
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "trivia-seen-writer");
+		t.setDaemon(true);
+		return t;
+	});
+
+	public static Path getDir() {
+		return TriviaConfigManager.getConfigDir().resolve("seen");
+	}
+
+	/**
+	 * Turning preferUnseenQuestions off saves and releases every loaded set.
+	 */
+	public void configure(TriviaConfig cfg) {
+		if (!cfg.preferUnseenQuestions) {
+			saveDirty();
+			sets.clear();
+		}
+	}
+
+	/**
+	 * A weighted pick (see {@link TriviaQuestionSampler}) among questions none of {@code viewers} has
+	 * seen, or failing that the least-seen of a few weighted draws.
+	 *
+	 * @param excluded indices that must not be picked (no-repeat window)
+	 * @return the bank index, or -1 if every question is excluded
+	 */
+	public int pick(TriviaQuestionsManager manager, RandomGenerator rng, List<UUID> viewers, IntPredicate excluded) {
+		TriviaQuestionSampler sampler = manager.getSampler();
+		if (viewers.isEmpty() || !syncBank(manager)) {
+			return sampler.sample(rng, excluded);
+		}
+		union.clear();
+		for (UUID player : viewers) {
+			union.or(setOf(player));
+		}
+		if (union.isEmpty()) {
+			return sampler.sample(rng, excluded);
+		}
+		int index = sampler.sample(rng, i -> excluded.test(i) || (i < ordinalOfIndex.length && union.contains(ordinalOfIndex[i])));
+		if (index >= 0) {
+			return index;
+		}
+		int best = -1;
+		int bestCount = Integer.MAX_VALUE;
+		for (int draw = 0; draw < FALLBACK_DRAWS && bestCount > 0; draw++) {
+			int candidate = sampler.sample(rng, excluded);
+			if (candidate < 0) {
+				break;
+			}
+			int count = seenCount(viewers, ordinalOfIndex[candidate]);
+			if (count < bestCount) {
+				best = candidate;
+				bestCount = count;
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * Marks the question at bank {@code index} as seen by {@code viewers}.
+	 */
+	public void markSeen(TriviaQuestionsManager manager, List<UUID> viewers, int index) {
+		if (viewers.isEmpty() || index < 0 || !syncBank(manager) || index >= ordinalOfIndex.length) {
+			return;
+		}
+		int ordinal = ordinalOfIndex[index];
+		for (UUID player : viewers) {
+			if (setOf(player).add(ordinal)) {
+				dirty.add(player);
+			}
+		}
+		if (++roundsSinceSave >= SAVE_EVERY_ROUNDS) {
+			saveDirty();
+		}
+	}
+
+	/**
+	 * Saves and releases the set of a player who left.
+	 */
+	public void onPlayerLeave(UUID player) {
+		if (dirty.remove(player)) {
+			TriviaSeenSet set = sets.get(player);
+			if (set != null) {
+				save(player, set);
+			}
+		}
+		sets.remove(player);
+	}
+
+	/**
+	 * Saves every changed set and waits (bounded) for the writes, e.g. on server shutdown.
+	 */
+	public void flush() {
+		saveDirty();
+		try {
+			writer.submit(() -> {
+			}).get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			TriviaMod.LOGGER.warn("Trivia: seen-question flush did not finish: {}", e.getMessage());
+		}
+	}
+
+	private int seenCount(List<UUID> viewers, int ordinal) {
+		int count = 0;
+		for (UUID player : viewers) {
+			if (setOf(player).contains(ordinal)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Maps bank indices to ordinals after a reload (or for questions added in-game since), registering
+	 * new questions.
+	 *
+	 * @return false if seen tracking is unavailable
+	 */
+	private boolean syncBank(TriviaQuestionsManager manager) {
+		if (!ordinalsLoaded) {
+			ordinalsLoaded = true;
+			usable = ordinals.load(getDir().resolve("ordinals.bin"));
+		}
+		if (!usable) {
+			return false;
+		}
+		List<TriviaQuestion> qs = manager.getQuestions();
+		int from = ordinalOfIndex.length;
+		if (manager.getVersion() != bankVersion) {
+			from = 0;
+		} else if (qs.size() <= from) {
+			return true;
+		}
+		int[] mapped = Arrays.copyOf(ordinalOfIndex, qs.size());
+		for (int i = from; i < mapped.length; i++) {
+			mapped[i] = ordinals.ordinalOf(qs.get(i).key());
+		}
+		ordinalOfIndex = mapped;
+		bankVersion = manager.getVersion();
+		byte[] added = ordinals.drainNew();
+		if (added.length > 0) {
+			Path file = getDir().resolve("ordinals.bin");
+			writer.execute(() -> {
+				try {
+					TriviaQuestionOrdinals.append(file, added);
+				} catch (IOException e) {
+					// Sets saved after this would reference ordinals missing from the file.
+					usable = false;
+					TriviaMod.LOGGER.error(
+						"Trivia: failed to append to {}; seen-question history is disabled until restart: {}",
+						file.getFileName(),
+						e.getMessage()
+					);
+				}
+			});
+		}
+		return true;
+	}
+
+	private TriviaSeenSet setOf(UUID player) {
+		TriviaSeenSet set = sets.get(player);
+		if (set == null) {
+			set = load(player);
+			sets.put(player, set);
+		}
+		return set;
+	}
+
+	private TriviaSeenSet load(UUID player) {
+		Path file = fileOf(player);
+		try {
+			byte[] bytes = pendingWrites.get(player);
+			if (bytes == null) {
+				if (Files.notExists(file)) {
+					return new TriviaSeenSet();
+				}
+				bytes = Files.readAllBytes(file);
+			}
+			try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+				if (in.readInt() != MAGIC || in.readInt() != FILE_VERSION) {
+					TriviaMod.LOGGER.warn("Trivia: unrecognized {}; starting a fresh history", file.getFileName());
+					return new TriviaSeenSet();
+				}
+				return TriviaSeenSet.read(in);
+			}
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to read {}: {}", file.getFileName(), e.getMessage());
+			return new TriviaSeenSet();
+		}
+	}
+
+	private void saveDirty() {
+		roundsSinceSave = 0;
+		for (UUID player : new ArrayList<>(dirty)) {
+			TriviaSeenSet set = sets.get(player);
+			if (set != null) {
+				save(player, set);
+			}
+		}
+		dirty.clear();
+	}
+
+	/**
+	 * Serializes on the calling thread (the set keeps changing) and writes in the background.
+	 */
+	private void save(UUID player, TriviaSeenSet set) {
+		if (!usable) {
+			return;
+		}
+		ByteArrayOutputStream buf = new ByteArrayOutputStream(256);
+		try (DataOutputStream out = new DataOutputStream(buf)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FILE_VERSION);
+			set.write(out);
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to encode seen questions for {}: {}", player, e.getMessage());
+			return;
+		}
+		byte[] bytes = buf.toByteArray();
+		pendingWrites.put(player, bytes);
+		Path file = fileOf(player);
+		writer.execute(() -> {
+			try {
+				if (!usable) {
+					return;
+				}
+				Files.createDirectories(file.getParent());
+				TriviaConfigManager.writeAtomic(file, bytes);
+			} catch (IOException e) {
+				TriviaMod.LOGGER.warn("Trivia: failed to write {}: {}", file.getFileName(), e.getMessage());
+			} finally {
+				pendingWrites.remove(player, bytes);
+			}
+		});
+	}
+
+	private static Path fileOf(UUID player) {
+		return getDir().resolve(player + ".bin");
+	}
+}
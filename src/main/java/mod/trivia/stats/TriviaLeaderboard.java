@@ -0,0 +1,188 @@
+package mod.trivia.stats;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Top players by solves, for all time and for the current UTC week and month.
+ *
+ * Each window is a bounded ordered set plus an index by player, updated as solves are recorded. Solve
+ * counts only grow within a window, so a player who falls off a board can only get back on by solving
+ * again, which is exactly when we look at them; no query ever rescans the player table. A weekly or
+ * monthly board is simply emptied when the first solve of a new period arrives.
+ */
+public final class TriviaLeaderboard implements TriviaStatsStore.Listener {
+	public static final int MAX_SIZE = 100;
+
+	public enum Window {
+		WEEKLY,
+		MONTHLY,
+		ALL_TIME;
+
+		public String label() {
+			return switch (this) {
+				case WEEKLY -> "this week";
+				case MONTHLY -> "this month";
+				case ALL_TIME -> "all time";
+			};
+		}
+
+		static long periodOf(Window w, long epochMillis) {
+			return switch (w) {
+				case WEEKLY -> TriviaPlayerStats.weekOf(epochMillis);
+				case MONTHLY -> TriviaPlayerStats.monthOf(epochMillis);
+				case ALL_TIME -> 0;
+			};
+		}
+
+		public static Window parse(String s) {
+			if (s == null) {
+				return ALL_TIME;
+			}
+			return switch (s.trim().toLowerCase(Locale.ROOT)) {
+				case "week", "weekly" -> WEEKLY;
+				case "month", "monthly" -> MONTHLY;
+				default -> ALL_TIME;
+			};
+		}
+	}
+
+	public record Entry(UUID player, String name, int score) {
+	}
+
+	private static final Comparator<Entry> RANKING = Comparator.comparingInt(Entry::score).reversed()
+		.thenComparing(Entry::player);
+
+	private static final class Board {
+		private final TreeSet<Entry> ranked = new TreeSet<>(RANKING);
+		private final Map<UUID, Entry> index = new HashMap<>();
+		private long period = Long.MIN_VALUE;
+
+		void offer(UUID player, String name, int score) {
+			if (score <= 0) {
+				return;
+			}
+			Entry old = index.remove(player);
+			if (old != null) {
+				ranked.remove(old);
+			} else if (ranked.size() >= MAX_SIZE && score <= ranked.last().score()) {
+				return;
+			}
+			Entry e = new Entry(player, name, score);
+			ranked.add(e);
+			index.put(player, e);
+			if (ranked.size() > MAX_SIZE) {
+				index.remove(ranked.pollLast().player());
+			}
+		}
+
+		/**
+		 * Moves the board to {@code newPeriod}, emptying it; older periods are ignored.
+		 *
+		 * @return false if {@code newPeriod} is older than the board
+		 */
+		boolean roll(long newPeriod) {
+			if (newPeriod < period) {
+				return false;
+			}
+			if (newPeriod > period) {
+				ranked.clear();
+				index.clear();
+				period = newPeriod;
+			}
+			return true;
+		}
+	}
+
+	private final Board allTime = new Board();
+	private final Board weekly = new Board();
+	private final Board monthly = new Board();
+	// Players whose all-time total changed since the last scoreboard sync.
+	private final Map<UUID, TriviaPlayerStats> dirty = new LinkedHashMap<>();
+
+	@Override
+	public void onLoaded(Collection<TriviaPlayerStats> all) {
+		long now = System.currentTimeMillis();
+		allTime.roll(0);
+		weekly.roll(Window.periodOf(Window.WEEKLY, now));
+		monthly.roll(Window.periodOf(Window.MONTHLY, now));
+		for (TriviaPlayerStats s : all) {
+			allTime.offer(s.playerId, s.lastName, s.solves);
+			weekly.offer(s.playerId, s.lastName, s.solvesInWeek(weekly.period));
+			monthly.offer(s.playerId, s.lastName, s.solvesInMonth(monthly.period));
+		}
+	}
+
+	@Override
+	public void onRecorded(TriviaStatsEvent event, TriviaPlayerStats s) {
+		if (event.outcome() != TriviaStatsEvent.SOLVED) {
+			return;
+		}
+		allTime.offer(s.playerId, s.lastName, s.solves);
+		if (weekly.roll(s.weekId)) {
+			weekly.offer(s.playerId, s.lastName, s.weekSolves);
+		}
+		if (monthly.roll(s.monthId)) {
+			monthly.offer(s.playerId, s.lastName, s.monthSolves);
+		}
+		dirty.put(s.playerId, s);
+	}
+
+	/**
+	 * The first {@code limit} entries of {@code window} (empty if nobody has solved anything in it yet).
+	 */
+	public List<Entry> top(Window window, int limit) {
+		Board board = boardOf(window);
+		List<Entry> out = new ArrayList<>(Math.min(limit, board.ranked.size()));
+		if (window != Window.ALL_TIME && board.period != Window.periodOf(window, System.currentTimeMillis())) {
+			// Nobody has solved anything since the period rolled over.
+			return out;
+		}
+		for (Entry e : board.ranked) {
+			if (out.size() >= limit) {
+				break;
+			}
+			out.add(e);
+		}
+		return out;
+	}
+
+	/**
+	 * Hands every player whose all-time total changed since the last call to {@code sink}, then forgets them.
+	 */
+	public void drainChanged(Consumer<TriviaPlayerStats> sink) {
+		if (dirty.isEmpty()) {
+			return;
+		}
+		dirty.values().forEach(sink);
+		dirty.clear();
+	}
+
+	/**
+	 * Queues every known player for the next drain (e.g. after the scoreboard objective changed).
+	 */
+	public void markAllChanged(Collection<TriviaPlayerStats> all) {
+		for (TriviaPlayerStats s : all) {
+			if (s.solves > 0) {
+				dirty.put(s.playerId, s);
+			}
+		}
+	}
+
+	private Board boardOf(Window window) {
+		return switch (window) {
+			case WEEKLY -> weekly;
+			case MONTHLY -> monthly;
+			case ALL_TIME -> allTime;
+		};
+	}
+}
@@ -0,0 +1,201 @@
+package mod.trivia.stats;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Lifetime trivia statistics for one player.
+ *
+ * Solve times are kept as a log-scale histogram (25% wide buckets from 100 ms), which is enough
+ * for a median without storing every sample.
+ */
+public final class TriviaPlayerStats {
+	static final int SOLVE_BUCKETS = 40;
+	private static final double BUCKET_BASE_MILLIS = 100.0;
+	private static final double BUCKET_GROWTH = 1.25;
+
+	public final UUID playerId;
+	public String lastName;
+
+	public int roundsPlayed;
+	public int solves;
+	public int fails;
+	public int wrongGuesses;
+	public int hintsUsed;
+	public int currentStreak;
+	public int bestStreak;
+
+	/**
+	 * Solves in the current UTC week / month (see {@link #weekOf(long)} and {@link #monthOf(long)}).
+	 * Only meaningful while the id matches the current period.
+	 */
+	public long weekId = -1;
+	public int weekSolves;
+	public long monthId = -1;
+	public int monthSolves;
+
+	final int[] solveBuckets = new int[SOLVE_BUCKETS];
+
+	public TriviaPlayerStats(UUID playerId) {
+		this.playerId = playerId;
+	}
+
+	/**
+	 * Percentage of rounds played that were solved.
+	 */
+	public int accuracyPercent() {
+		return roundsPlayed <= 0 ? 0 : (int) Math.round(100.0 * solves / roundsPlayed);
+	}
+
+	/**
+	 * Approximate median solve time, or -1 with no solves yet.
+	 */
+	public long medianSolveMillis() {
+		long total = 0;
+		for (int c : solveBuckets) {
+			total += c;
+		}
+		if (total == 0) {
+			return -1;
+		}
+		long seen = 0;
+		for (int i = 0; i < SOLVE_BUCKETS; i++) {
+			seen += solveBuckets[i];
+			if (seen * 2 >= total) {
+				// Geometric middle of the bucket.
+				return Math.round(BUCKET_BASE_MILLIS * Math.pow(BUCKET_GROWTH, i - 0.5));
+			}
+		}
+		return -1;
+	}
+
+	void apply(TriviaStatsEvent e) {
+		if (e.name() != null && !e.name().isEmpty()) {
+			lastName = e.name();
+		}
+		roundsPlayed++;
+		wrongGuesses += e.wrongGuesses();
+		hintsUsed += e.hintsUsed();
+		if (e.outcome() == TriviaStatsEvent.SOLVED) {
+			solves++;
+			currentStreak++;
+			bestStreak = Math.max(bestStreak, currentStreak);
+			solveBuckets[bucketOf(e.solveMillis())]++;
+			long week = weekOf(e.epochMillis());
+			if (week != weekId) {
+				weekId = week;
+				weekSolves = 0;
+			}
+			weekSolves++;
+			long month = monthOf(e.epochMillis());
+			if (month != monthId) {
+				monthId = month;
+				monthSolves = 0;
+			}
+			monthSolves++;
+		} else {
+			fails++;
+			currentStreak = 0;
+		}
+	}
+
+	/**
+	 * Solves in the week {@code week}, or 0 if the player's counter belongs to another week.
+	 */
+	public int solvesInWeek(long week) {
+		return weekId == week ? weekSolves : 0;
+	}
+
+	public int solvesInMonth(long month) {
+		return monthId == month ? monthSolves : 0;
+	}
+
+	/**
+	 * UTC week number since the epoch, weeks starting on Monday.
+	 */
+	public static long weekOf(long epochMillis) {
+		long epochDay = Math.floorDiv(epochMillis, 86_400_000L);
+		// 1970-01-01 was a Thursday.
+		return Math.floorDiv(epochDay + 3, 7);
+	}
+
+	/**
+	 * UTC month number (year * 12 + month).
+	 */
+	public static long monthOf(long epochMillis) {
+		LocalDate d = LocalDate.ofEpochDay(Math.floorDiv(epochMillis, 86_400_000L));
+		return d.getYear() * 12L + (d.getMonthValue() - 1);
+	}
+
+	static int bucketOf(long millis) {
+		if (millis <= BUCKET_BASE_MILLIS) {
+			return 0;
+		}
+		int i = (int) Math.ceil(Math.log(millis / BUCKET_BASE_MILLIS) / Math.log(BUCKET_GROWTH));
+		return Math.min(SOLVE_BUCKETS - 1, Math.max(0, i));
+	}
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeLong(playerId.getMostSignificantBits());
+		out.writeLong(playerId.getLeastSignificantBits());
+		out.writeUTF(lastName == null ? "" : lastName);
+		out.writeInt(roundsPlayed);
+		out.writeInt(solves);
+		out.writeInt(fails);
+		out.writeInt(wrongGuesses);
+		out.writeInt(hintsUsed);
+		out.writeInt(currentStreak);
+		out.writeInt(bestStreak);
+		out.writeLong(weekId);
+		out.writeInt(weekSolves);
+		out.writeLong(monthId);
+		out.writeInt(monthSolves);
+		int nonZero = 0;
+		for (int c : solveBuckets) {
+			if (c != 0) {
+				nonZero++;
+			}
+		}
+		out.writeByte(nonZero);
+		for (int i = 0; i < SOLVE_BUCKETS; i++) {
+			if (solveBuckets[i] != 0) {
+				out.writeByte(i);
+				out.writeInt(solveBuckets[i]);
+			}
+		}
+	}
+
+	/**
+	 * @param version file version; v1 snapshots have no week/month counters
+	 */
+	static TriviaPlayerStats read(DataInputStream in, int version) throws IOException {
+		TriviaPlayerStats s = new TriviaPlayerStats(new UUID(in.readLong(), in.readLong()));
+		String name = in.readUTF();
+		s.lastName = name.isEmpty() ? null : name;
+		s.roundsPlayed = in.readInt();
+		s.solves = in.readInt();
+		s.fails = in.readInt();
+		s.wrongGuesses = in.readInt();
+		s.hintsUsed = in.readInt();
+		s.currentStreak = in.readInt();
+		s.bestStreak = in.readInt();
+		if (version >= 2) {
+			s.weekId = in.readLong();
+			s.weekSolves = in.readInt();
+			s.monthId = in.readLong();
+			s.monthSolves = in.readInt();
+		}
+		int nonZero = in.readUnsignedByte();
+		for (int j = 0; j < nonZero; j++) {
+			int i = in.readUnsignedByte();
+			int count = in.readInt();
+			if (i < SOLVE_BUCKETS) {
+				s.solveBuckets[i] = count;
+			}
+		}
+		return s;
+	}
+}
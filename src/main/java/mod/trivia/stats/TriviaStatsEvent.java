@@ -0,0 +1,45 @@
+package mod.trivia.stats;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.UUID;
+
+/**
+ * One player's result for one round; the unit appended to the stats log.
+ *
+ * @param name        player name at the time, or null if unknown (offline at round end)
+ * @param solveMillis time from question broadcast to the solve; ignored unless {@code outcome} is SOLVED
+ */
+public record TriviaStatsEvent(UUID player, String name, byte outcome, long epochMillis, int solveMillis, int wrongGuesses, int hintsUsed) {
+	public static final byte SOLVED = 1;
+	public static final byte FAILED = 2;
+
+	static final byte TYPE_ROUND = 1;
+
+	void write(DataOutputStream out) throws IOException {
+		out.writeByte(TYPE_ROUND);
+		out.writeLong(player.getMostSignificantBits());
+		out.writeLong(player.getLeastSignificantBits());
+		out.writeUTF(name == null ? "" : name);
+		out.writeByte(outcome);
+		out.writeLong(epochMillis);
+		out.writeInt(solveMillis);
+		out.writeShort(Math.min(Short.MAX_VALUE, wrongGuesses));
+		out.writeShort(Math.min(Short.MAX_VALUE, hintsUsed));
+	}
+
+	/**
+	 * Reads the body of a round event (the type byte has already been consumed).
+	 */
+	static TriviaStatsEvent read(DataInputStream in) throws IOException {
+		UUID player = new UUID(in.readLong(), in.readLong());
+		String name = in.readUTF();
+		byte outcome = in.readByte();
+		long epochMillis = in.readLong();
+		int solveMillis = in.readInt();
+		int wrong = in.readShort();
+		int hints = in.readShort();
+		return new TriviaStatsEvent(player, name.isEmpty() ? null : name, outcome, epochMillis, solveMillis, wrong, hints);
+	}
+}
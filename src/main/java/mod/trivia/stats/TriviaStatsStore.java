@@ -0,0 +1,281 @@
+package mod.trivia.stats;
+
+import mod.trivia.TriviaMod;
+import mod.trivia.config.TriviaConfigManager;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persistent per-player statistics.
+ *
+ * Everything lives in one file, player_stats.bin: a snapshot of all players followed by round events
+ * appended since that snapshot. Startup is a single sequential read of the file. The server thread
+ * updates its own map; a background writer appends each event and keeps a replica of the map, which it
+ * periodically writes out as a fresh snapshot (atomically replacing the file), so the log stays short.
+ */
+public final class TriviaStatsStore {
+	private static final int MAGIC = 0x54535453; // "TSTS"
+	private static final int FILE_VERSION = 2;
+	private static final int COMPACT_AFTER_EVENTS = 4096;
+
+	/**
+	 * Notified on the server thread once the file is loaded and after every recorded event (e.g. leaderboards).
+	 */
+	public interface Listener {
+		default void onLoaded(Collection<TriviaPlayerStats> all) {
+		}
+
+		void onRecorded(TriviaStatsEvent event, TriviaPlayerStats stats);
+	}
+
+	private final Map<UUID, TriviaPlayerStats> stats = new HashMap<>();
+	private final List<Listener> listeners = new ArrayList<>();
+	private boolean loaded;
+	// Cleared if the file exists but cannot be read, so we never overwrite it with partial data.
+	private volatile boolean persist = true;
+
+	private final ExecutorService writer = Executors.newSingleThreadExecutor(r -> {
+		Thread t = new Thread(r, "trivia-stats-writer");
+		t.setDaemon(true);
+		return t;
+	});
+	// Writer-thread state.
+	private final Map<UUID, TriviaPlayerStats> replica = new HashMap<>();
+	private FileChannel log;
+	private int eventsSinceSnapshot;
+
+	public Path getPath() {
+		return TriviaConfigManager.getConfigDir().resolve("player_stats.bin");
+	}
+
+	public void addListener(Listener listener) {
+		listeners.add(listener);
+	}
+
+	public TriviaPlayerStats get(UUID player) {
+		return stats.get(player);
+	}
+
+	public Collection<TriviaPlayerStats> all() {
+		return Collections.unmodifiableCollection(stats.values());
+	}
+
+	/**
+	 * Loads the file once per process; later calls are no-ops (the in-memory state is authoritative).
+	 */
+	public void load() {
+		if (loaded) {
+			return;
+		}
+		loaded = true;
+		Path file = getPath();
+		byte[] bytes;
+		try {
+			bytes = Files.exists(file) ? Files.readAllBytes(file) : new byte[0];
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to read {}; stats will not be saved this session: {}", file.getFileName(), e.getMessage());
+			persist = false;
+			notifyLoaded();
+			return;
+		}
+		long validLength = decode(bytes, stats);
+		if (bytes.length > 0 && validLength <= 0) {
+			// Unrecognized or newer format (e.g. after a mod downgrade): keep the file as it is.
+			TriviaMod.LOGGER.warn("Trivia: {} is not readable by this version; stats will not be saved this session", file.getFileName());
+			stats.clear();
+			persist = false;
+			notifyLoaded();
+			return;
+		}
+		for (TriviaPlayerStats s : stats.values()) {
+			replica.put(s.playerId, copyOf(s));
+		}
+		writer.execute(() -> openLog(file, validLength, bytes.length == 0));
+		TriviaMod.LOGGER.info("Trivia: loaded stats for {} players", stats.size());
+		notifyLoaded();
+	}
+
+	private void notifyLoaded() {
+		for (Listener l : listeners) {
+			l.onLoaded(all());
+		}
+	}
+
+	/**
+	 * Records one round result. Server thread only.
+	 */
+	public void record(TriviaStatsEvent event) {
+		TriviaPlayerStats s = stats.computeIfAbsent(event.player(), TriviaPlayerStats::new);
+		s.apply(event);
+		for (Listener l : listeners) {
+			l.onRecorded(event, s);
+		}
+		writer.execute(() -> append(event));
+	}
+
+	/**
+	 * Waits (bounded) for queued writes, e.g. on server shutdown.
+	 */
+	public void flush() {
+		try {
+			writer.submit(() -> {
+				try {
+					if (log != null) {
+						log.force(false);
+					}
+				} catch (IOException e) {
+					TriviaMod.LOGGER.warn("Trivia: failed to sync stats log: {}", e.getMessage());
+				}
+			}).get(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		} catch (Exception e) {
+			TriviaMod.LOGGER.warn("Trivia: stats flush did not finish: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * @return bytes of {@code data} that decoded cleanly (a torn final event is dropped)
+	 */
+	private static long decode(byte[] data, Map<UUID, TriviaPlayerStats> into) {
+		if (data.length == 0) {
+			return 0;
+		}
+		ByteArrayInputStream raw = new ByteArrayInputStream(data);
+		DataInputStream in = new DataInputStream(raw);
+		long valid = 0;
+		try {
+			int version = in.readInt() == MAGIC ? in.readInt() : -1;
+			if (version < 1 || version > FILE_VERSION) {
+				TriviaMod.LOGGER.warn("Trivia: unrecognized player_stats.bin (version {})", version);
+				return -1;
+			}
+			int count = in.readInt();
+			for (int i = 0; i < count; i++) {
+				TriviaPlayerStats s = TriviaPlayerStats.read(in, version);
+				into.put(s.playerId, s);
+			}
+			valid = data.length - raw.available();
+			while (raw.available() > 0) {
+				byte type = in.readByte();
+				if (type != TriviaStatsEvent.TYPE_ROUND) {
+					TriviaMod.LOGGER.warn("Trivia: unknown stats record type {}; ignoring the rest", type);
+					break;
+				}
+				TriviaStatsEvent e = TriviaStatsEvent.read(in);
+				into.computeIfAbsent(e.player(), TriviaPlayerStats::new).apply(e);
+				valid = data.length - raw.available();
+			}
+		} catch (EOFException e) {
+			TriviaMod.LOGGER.warn("Trivia: player_stats.bin ends in a partial record; dropping it");
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to decode player_stats.bin: {}", e.getMessage());
+		}
+		return valid;
+	}
+
+	private void openLog(Path file, long validLength, boolean fresh) {
+		try {
+			if (fresh) {
+				// No file yet: start from an empty snapshot.
+				writeSnapshot(file);
+				return;
+			}
+			Files.createDirectories(file.getParent());
+			log = FileChannel.open(file, StandardOpenOption.WRITE);
+			if (log.size() > validLength) {
+				log.truncate(validLength);
+			}
+			log.position(validLength);
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to open stats log: {}", e.getMessage());
+		}
+	}
+
+	private void append(TriviaStatsEvent event) {
+		replica.computeIfAbsent(event.player(), TriviaPlayerStats::new).apply(event);
+		if (!persist) {
+			return;
+		}
+		try {
+			if (log == null) {
+				writeSnapshot(getPath());
+				return;
+			}
+			ByteArrayOutputStream buf = new ByteArrayOutputStream(64);
+			try (DataOutputStream out = new DataOutputStream(buf)) {
+				event.write(out);
+			}
+			ByteBuffer bb = ByteBuffer.wrap(buf.toByteArray());
+			while (bb.hasRemaining()) {
+				log.write(bb);
+			}
+			if (++eventsSinceSnapshot >= COMPACT_AFTER_EVENTS) {
+				writeSnapshot(getPath());
+			}
+		} catch (IOException e) {
+			TriviaMod.LOGGER.warn("Trivia: failed to append stats event: {}", e.getMessage());
+		}
+	}
+
+	/**
+	 * Compaction: replaces the file with a snapshot of the replica and reopens it for appending.
+	 */
+	private void writeSnapshot(Path file) throws IOException {
+		ByteArrayOutputStream buf = new ByteArrayOutputStream(64 + replica.size() * 96);
+		try (DataOutputStream out = new DataOutputStream(buf)) {
+			out.writeInt(MAGIC);
+			out.writeInt(FILE_VERSION);
+			out.writeInt(replica.size());
+			for (TriviaPlayerStats s : replica.values()) {
+				s.write(out);
+			}
+		}
+		if (log != null) {
+			log.close();
+			log = null;
+		}
+		Files.createDirectories(file.getParent());
+		TriviaConfigManager.writeAtomic(file, buf.toByteArray());
+		log = FileChannel.open(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+		eventsSinceSnapshot = 0;
+	}
+
+	private static TriviaPlayerStats copyOf(TriviaPlayerStats s) {
+		TriviaPlayerStats c = new TriviaPlayerStats(s.playerId);
+		c.lastName = s.lastName;
+		c.roundsPlayed = s.roundsPlayed;
+		c.solves = s.solves;
+		c.fails = s.fails;
+		c.wrongGuesses = s.wrongGuesses;
+		c.hintsUsed = s.hintsUsed;
+		c.currentStreak = s.currentStreak;
+		c.bestStreak = s.bestStreak;
+		c.weekId = s.weekId;
+		c.weekSolves = s.weekSolves;
+		c.monthId = s.monthId;
+		c.monthSolves = s.monthSolves;
+		System.arraycopy(s.solveBuckets, 0, c.solveBuckets, 0, TriviaPlayerStats.SOLVE_BUCKETS);
+		return c;
+	}
+}
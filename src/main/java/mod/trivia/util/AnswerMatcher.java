@@ -1,11 +1,24 @@
 package mod.trivia.util;
 
+import java.util.List;
 import java.util.Locale;
 
 public final class AnswerMatcher {
 	private AnswerMatcher() {
 	}
 
+	/**
+	 * True if {@code guessRaw} matches any of {@code correctAnswers} (an answer and its aliases).
+	 */
+	public static boolean isLikelyCorrectLocal(List<String> correctAnswers, String guessRaw, boolean fuzzyEnabled, int maxEditDistance) {
+		for (String correct : correctAnswers) {
+			if (isLikelyCorrectLocal(correct, guessRaw, fuzzyEnabled, maxEditDistance)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
 	public static boolean isLikelyCorrectLocal(String correctAnswerRaw, String guessRaw, boolean fuzzyEnabled, int maxEditDistance) {
 		String correct = normalizeStrict(correctAnswerRaw);
 		String guess = normalizeStrict(guessRaw);
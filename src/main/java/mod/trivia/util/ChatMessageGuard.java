@@ -0,0 +1,58 @@
+package mod.trivia.util;
+
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the last answer message seen per player so the fallback chat handler can skip it.
+ *
+ * Thread-safe, bounded, and entries expire after a short TTL so players that disconnect (or a
+ * fallback event that never fires) cannot grow it indefinitely.
+ */
+public final class ChatMessageGuard {
+	private record Entry(String raw, long expiresAtNanos) {
+	}
+
+	private final ConcurrentHashMap<UUID, Entry> entries = new ConcurrentHashMap<>();
+	private final int maxEntries;
+	private final long ttlNanos;
+
+	public ChatMessageGuard(int maxEntries, long ttlMillis) {
+		this.maxEntries = Math.max(1, maxEntries);
+		this.ttlNanos = Math.max(1, ttlMillis) * 1_000_000L;
+	}
+
+	public void put(UUID player, String raw) {
+		long now = System.nanoTime();
+		if (entries.size() >= maxEntries) {
+			entries.values().removeIf(e -> e.expiresAtNanos() - now <= 0);
+			if (entries.size() >= maxEntries) {
+				// Still full of live entries: dropping them only risks a duplicate attempt, never a leak.
+				entries.clear();
+			}
+		}
+		entries.put(player, new Entry(raw, now + ttlNanos));
+	}
+
+	/**
+	 * Removes and returns true if {@code raw} is the (unexpired) guarded message for {@code player}.
+	 */
+	public boolean consume(UUID player, String raw) {
+		Entry e = entries.get(player);
+		if (e == null) {
+			return false;
+		}
+		if (e.expiresAtNanos() - System.nanoTime() <= 0) {
+			entries.remove(player, e);
+			return false;
+		}
+		if (!e.raw().equals(raw)) {
+			return false;
+		}
+		return entries.remove(player, e);
+	}
+
+	public void remove(UUID player) {
+		entries.remove(player);
+	}
+}
@@ -0,0 +1,195 @@
+package mod.trivia.util;
+
+import java.util.Arrays;
+
+/**
+ * Per-player token bucket for answer attempts.
+ *
+ * Keyed by the player's entity id (stable for the session) in an open-addressing table of
+ * primitive arrays, so a check allocates nothing. Tokens are tracked in thousandths to stay in
+ * integer math.
+ */
+public final class GuessRateLimiter {
+	private static final int EMPTY = Integer.MIN_VALUE;
+	private static final long MILLI = 1000L;
+	private static final long NOTICE_INTERVAL_NANOS = 2_000_000_000L;
+
+	private int[] keys;
+	private long[] tokens;
+	private long[] lastRefillNanos;
+	private long[] lastNoticeNanos;
+	private long[] dropped;
+	private int size;
+
+	private long ratePerSecond;
+	private long burst;
+	private long totalDropped;
+
+	public GuessRateLimiter() {
+		allocate(64);
+	}
+
+	/**
+	 * @param perSecond sustained guesses per second; 0 or less disables limiting
+	 * @param burst     guesses allowed back to back
+	 */
+	public synchronized void configure(int perSecond, int burst) {
+		this.ratePerSecond = Math.max(0, perSecond);
+		this.burst = Math.max(1, burst);
+	}
+
+	public synchronized boolean isEnabled() {
+		return ratePerSecond > 0;
+	}
+
+	/**
+	 * Consumes one token for {@code playerId}.
+	 *
+	 * @return true if the guess may proceed
+	 */
+	public synchronized boolean tryAcquire(int playerId, long nowNanos) {
+		if (ratePerSecond <= 0) {
+			return true;
+		}
+		int slot = findOrInsert(playerId, nowNanos);
+		// Clamp so long idle gaps cannot overflow the multiplication below.
+		long elapsed = Math.min(60_000_000_000L, Math.max(0, nowNanos - lastRefillNanos[slot]));
+		long refill = elapsed * ratePerSecond * MILLI / 1_000_000_000L;
+		if (refill > 0) {
+			tokens[slot] = Math.min(burst * MILLI, tokens[slot] + refill);
+			lastRefillNanos[slot] = nowNanos;
+		}
+		if (tokens[slot] >= MILLI) {
+			tokens[slot] -= MILLI;
+			return true;
+		}
+		dropped[slot]++;
+		totalDropped++;
+		return false;
+	}
+
+	/**
+	 * True at most once per couple of seconds per player, so drop notices do not become spam themselves.
+	 */
+	public synchronized boolean shouldNotify(int playerId, long nowNanos) {
+		int slot = find(playerId);
+		if (slot < 0) {
+			return false;
+		}
+		if (lastNoticeNanos[slot] != 0 && nowNanos - lastNoticeNanos[slot] < NOTICE_INTERVAL_NANOS) {
+			return false;
+		}
+		lastNoticeNanos[slot] = nowNanos;
+		return true;
+	}
+
+	public synchronized long droppedFor(int playerId) {
+		int slot = find(playerId);
+		return slot < 0 ? 0 : dropped[slot];
+	}
+
+	public synchronized long totalDropped() {
+		return totalDropped;
+	}
+
+	public synchronized void remove(int playerId) {
+		int slot = find(playerId);
+		if (slot < 0) {
+			return;
+		}
+		// Backward-shift deletion keeps linear probing chains intact without tombstones.
+		int mask = keys.length - 1;
+		int hole = slot;
+		int i = (hole + 1) & mask;
+		while (keys[i] != EMPTY) {
+			int home = mix(keys[i]) & mask;
+			if (((i - home) & mask) >= ((i - hole) & mask)) {
+				move(i, hole);
+				hole = i;
+			}
+			i = (i + 1) & mask;
+		}
+		keys[hole] = EMPTY;
+		size--;
+	}
+
+	private int find(int key) {
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			if (keys[i] == key) {
+				return i;
+			}
+			i = (i + 1) & mask;
+		}
+		return -1;
+	}
+
+	private int findOrInsert(int key, long nowNanos) {
+		int slot = find(key);
+		if (slot >= 0) {
+			return slot;
+		}
+		if ((size + 1) * 2 > keys.length) {
+			grow();
+		}
+		int mask = keys.length - 1;
+		int i = mix(key) & mask;
+		while (keys[i] != EMPTY) {
+			i = (i + 1) & mask;
+		}
+		keys[i] = key;
+		tokens[i] = burst * MILLI;
+		lastRefillNanos[i] = nowNanos;
+		lastNoticeNanos[i] = 0;
+		dropped[i] = 0;
+		size++;
+		return i;
+	}
+
+	private void move(int from, int to) {
+		keys[to] = keys[from];
+		tokens[to] = tokens[from];
+		lastRefillNanos[to] = lastRefillNanos[from];
+		lastNoticeNanos[to] = lastNoticeNanos[from];
+		dropped[to] = dropped[from];
+	}
+
+	private void grow() {
+		int[] oldKeys = keys;
+		long[] oldTokens = tokens;
+		long[] oldRefill = lastRefillNanos;
+		long[] oldNotice = lastNoticeNanos;
+		long[] oldDropped = dropped;
+		allocate(oldKeys.length * 2);
+		int mask = keys.length - 1;
+		for (int j = 0; j < oldKeys.length; j++) {
+			if (oldKeys[j] == EMPTY) {
+				continue;
+			}
+			int i = mix(oldKeys[j]) & mask;
+			while (keys[i] != EMPTY) {
+				i = (i + 1) & mask;
+			}
+			keys[i] = oldKeys[j];
+			tokens[i] = oldTokens[j];
+			lastRefillNanos[i] = oldRefill[j];
+			lastNoticeNanos[i] = oldNotice[j];
+			dropped[i] = oldDropped[j];
+		}
+	}
+
+	private void allocate(int capacity) {
+		keys = new int[capacity];
+		Arrays.fill(keys, EMPTY);
+		tokens = new long[capacity];
+		lastRefillNanos = new long[capacity];
+		lastNoticeNanos = new long[capacity];
+		dropped = new long[capacity];
+	}
+
+	private static int mix(int key) {
+		int h = key * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
@@ -117,6 +117,7 @@ class UniversalBuildSystem:
         try:
             settings = json.loads(default_settings.read_text(encoding="utf-8"))
             required = [
+                "configVersion",
                 "enabled",
                 "questionDurationSeconds",
                 "cooldownSeconds",